@@ -0,0 +1,68 @@
+package net.je2sh.asciitable;
+
+import static org.fusesource.jansi.Ansi.ansi;
+
+import java.util.concurrent.TimeUnit;
+
+import org.fusesource.jansi.Ansi;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+
+/**
+ * Compares the length calculation of {@link AnsiContentParser} against
+ * {@link FastAnsiContentParser}, with and without cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnsiLengthBenchmark {
+
+    @Param({"1", "10"})
+    public int segments;
+
+    private String content;
+
+    private final ContentParser ansiParser = new AnsiContentParser();
+    private final ContentParser fastParser = new FastAnsiContentParser();
+    private final ContentParser cachedFastParser = new FastAnsiContentParser(128);
+
+    @Setup
+    public void setup() {
+        Ansi builder = ansi();
+        for (int i = 0; i < segments; i++) {
+            builder.fg(Ansi.Color.values()[i % Ansi.Color.values().length])
+                   .a("segment " + i + " of coloured content ")
+                   .reset();
+        }
+        content = builder.toString();
+    }
+
+    @Benchmark
+    public int ansiString() {
+        return ansiParser.getLength(content);
+    }
+
+    @Benchmark
+    public int scanner() {
+        return fastParser.getLength(content);
+    }
+
+    @Benchmark
+    public int cachedScanner() {
+        return cachedFastParser.getLength(content);
+    }
+}
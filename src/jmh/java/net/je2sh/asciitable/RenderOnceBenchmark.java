@@ -0,0 +1,140 @@
+package net.je2sh.asciitable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import net.je2sh.asciitable.style.JTheme;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+
+/**
+ * Compares {@link JTable#render()}, which wraps each column once and pads it to the row height,
+ * with the previous approach of rendering every column a second time once the row height is
+ * known.
+ * <p>
+ * Uses wide, text heavy tables where wrapping dominates the render time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderOnceBenchmark {
+
+    private static final String TEXT =
+            "Lorem ipsum dolor sit amet, consectetur adipiscing elit, sed do eiusmod tempor " +
+            "incididunt ut labore et dolore magna aliqua. Ut enim ad minim veniam, quis nostrud " +
+            "exercitation ullamco laboris nisi ut aliquip ex ea commodo consequat. ";
+
+    private static final int COL_WIDTH = 40;
+
+    @Param({"4", "8"})
+    public int columns;
+
+    @Param({"1", "4"})
+    public int paragraphs;
+
+    private JTable table;
+    private int[] colSizes;
+    private ColumnFragments fragments;
+
+    @Setup
+    public void setup() {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < paragraphs; i++) {
+            content.append(TEXT);
+        }
+
+        table = JTable.of().width(columns * COL_WIDTH);
+        colSizes = new int[columns];
+        Arrays.fill(colSizes, COL_WIDTH);
+        for (int rowIdx = 0; rowIdx < 100; rowIdx++) {
+            JRow row = table.row();
+            for (int colIdx = 0; colIdx < columns; colIdx++) {
+                // Vary the height of the columns so most of them need to be padded
+                row.col().width(COL_WIDTH)
+                   .content(content.substring(0, content.length() / (colIdx + 1)));
+            }
+        }
+        fragments = ColumnFragments.of(table.getTheme(),
+                                       table.getRows().get(0).getCols().get(0).getPadding(),
+                                       COL_WIDTH);
+    }
+
+    @Benchmark
+    public List<String> renderOnce() {
+        return table.render();
+    }
+
+    /**
+     * Renders the rows as {@link #renderOnce()} does, with the same borders, fragments, wrapper
+     * and scratch buffers, but wraps every column a second time once the row height is known.
+     */
+    @Benchmark
+    public List<String> renderTwice() {
+        JTheme theme = table.getTheme();
+        BorderCache borderCache = table.getBorderCache();
+        String firstBorder = borderCache.topBorder(theme, colSizes, null, table.getWidth());
+        String innerBorder = borderCache.topBorder(theme, colSizes, colSizes, table.getWidth());
+        LineWrapper lineWrapper = new LineWrapper(table.getContentParser());
+        StringBuilder colLineBuilder = new StringBuilder();
+        StringBuilder lineBuilder = new StringBuilder();
+        List<List<String>> colLines = new ArrayList<>();
+        for (int colIdx = 0; colIdx < columns; colIdx++) {
+            colLines.add(new ArrayList<>());
+        }
+
+        List<String> result = new ArrayList<>();
+        boolean first = true;
+        for (JRow row : table.getRows()) {
+            String topBorder = first ? firstBorder : innerBorder;
+            if (!topBorder.trim().isEmpty()) {
+                result.add(topBorder);
+            }
+            first = false;
+
+            List<JCol> cols = row.getCols();
+            int maxHeight = 0;
+            for (int colIdx = 0; colIdx < cols.size(); colIdx++) {
+                List<String> lines = colLines.get(colIdx);
+                lines.clear();
+                cols.get(colIdx).render(fragments, null, lines, lineWrapper, colLineBuilder);
+                maxHeight = Math.max(maxHeight, lines.size());
+            }
+
+            for (int colIdx = 0; colIdx < cols.size(); colIdx++) {
+                List<String> lines = colLines.get(colIdx);
+                lines.clear();
+                cols.get(colIdx).render(fragments, maxHeight, lines, lineWrapper, colLineBuilder);
+            }
+
+            for (int lineIdx = 0; lineIdx < maxHeight; lineIdx++) {
+                lineBuilder.setLength(0);
+                for (List<String> lines : colLines) {
+                    lineBuilder.append(lines.get(lineIdx));
+                }
+                result.add(lineBuilder.append(theme.vertical).toString());
+            }
+        }
+
+        String bottomBorder = borderCache.bottomBorder(theme, colSizes);
+        if (!bottomBorder.trim().isEmpty()) {
+            result.add(bottomBorder);
+        }
+        return result;
+    }
+}
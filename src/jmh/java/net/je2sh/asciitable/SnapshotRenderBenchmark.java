@@ -0,0 +1,64 @@
+package net.je2sh.asciitable;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+
+/**
+ * Measures snapshots of a {@link JConcurrentTable} rendered by one and by several threads at
+ * once. Snapshots share their borders, so unless renders contend on them the total throughput
+ * should grow with the number of threads, up to the number of cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnapshotRenderBenchmark {
+
+    private static final int ROWS = 1000;
+
+    private JConcurrentTable live;
+
+    @Setup
+    public void setup() {
+        live = JConcurrentTable.of(JTable.of().width(120));
+        for (int rowIdx = 0; rowIdx < ROWS; rowIdx++) {
+            JRow row = new JRow(JTable.of());
+            for (int colIdx = 0; colIdx < 4; colIdx++) {
+                JCol col = row.col().content("r" + rowIdx + "c" + colIdx);
+                if (rowIdx % 2 == 1 && colIdx == 0) {
+                    // Alternate layouts so every row needs a different border than the previous
+                    col.width(20);
+                }
+            }
+            live.add(row);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public List<String> renderAlone() {
+        return live.snapshot().render();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public List<String> renderConcurrently() {
+        return live.snapshot().render();
+    }
+}
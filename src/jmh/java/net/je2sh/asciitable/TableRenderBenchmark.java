@@ -0,0 +1,176 @@
+package net.je2sh.asciitable;
+
+import static org.fusesource.jansi.Ansi.ansi;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import net.je2sh.asciitable.style.JTheme;
+import org.fusesource.jansi.Ansi;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+
+/**
+ * Measures {@link JTable#render()} across table shapes, themes and content parsers.
+ * <p>
+ * Run with the {@code gc} profiler (the default of the {@code jmh} Gradle task) to also get the
+ * allocation rate of each combination.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TableRenderBenchmark {
+
+    private static final String WORDS =
+            "Lorem ipsum dolor sit amet, consectetur adipiscing elit, sed do eiusmod tempor " +
+            "incididunt ut labore et dolore magna aliqua. Ut enim ad minim veniam, quis nostrud " +
+            "exercitation ullamco laboris nisi ut aliquip ex ea commodo consequat. ";
+
+    public enum Shape {
+        /**
+         * Many rows of short, single line cells
+         */
+        NARROW_ROWS(1000, 4, false) {
+            @Override
+            String content(int rowIdx, int colIdx) {
+                return "r" + rowIdx + "c" + colIdx;
+            }
+        },
+        /**
+         * Few rows of very long cells, each wrapped into many lines
+         */
+        WIDE_WRAPPED(10, 3, false) {
+            @Override
+            String content(int rowIdx, int colIdx) {
+                return WORDS + WORDS + WORDS + WORDS;
+            }
+        },
+        /**
+         * Rows alternating between fixed and dynamic column widths, so borders need to connect
+         * different layouts
+         */
+        MIXED_WIDTHS(200, 4, true) {
+            @Override
+            String content(int rowIdx, int colIdx) {
+                return WORDS.substring(0, 10 + (rowIdx * 7 + colIdx * 13) % 60);
+            }
+        };
+
+        private final int rows;
+        private final int cols;
+        private final boolean mixedWidths;
+
+        Shape(int rows, int cols, boolean mixedWidths) {
+            this.rows = rows;
+            this.cols = cols;
+            this.mixedWidths = mixedWidths;
+        }
+
+        abstract String content(int rowIdx, int colIdx);
+    }
+
+    public enum Theme {
+        SINGLE_LINE(JTheme.SINGLE_LINE),
+        DOUBLE_LINE(JTheme.DOUBLE_LINE),
+        NO_LINE(JTheme.NO_LINE);
+
+        private final JTheme theme;
+
+        Theme(JTheme theme) {
+            this.theme = theme;
+        }
+    }
+
+    public enum Parser {
+        PLAIN {
+            @Override
+            ContentParser parser() {
+                return new PlainContextParser();
+            }
+
+            @Override
+            Object decorate(String content, int colIdx) {
+                return content;
+            }
+        },
+        ANSI {
+            @Override
+            ContentParser parser() {
+                return new AnsiContentParser();
+            }
+
+            @Override
+            Object decorate(String content, int colIdx) {
+                Ansi.Color color = Ansi.Color.values()[colIdx % Ansi.Color.values().length];
+                return ansi().fg(color).a(content).reset().toString();
+            }
+        },
+        FAST_ANSI {
+            @Override
+            ContentParser parser() {
+                return new FastAnsiContentParser();
+            }
+
+            @Override
+            Object decorate(String content, int colIdx) {
+                return ANSI.decorate(content, colIdx);
+            }
+        };
+
+        abstract ContentParser parser();
+
+        abstract Object decorate(String content, int colIdx);
+    }
+
+    @Param
+    public Shape shape;
+
+    @Param
+    public Theme theme;
+
+    @Param
+    public Parser parser;
+
+    private JTable table;
+
+    @Setup
+    public void setup() {
+        int tableWidth = 120;
+        table = JTable.of().width(tableWidth).theme(theme.theme).contentParser(parser.parser());
+
+        for (int rowIdx = 0; rowIdx < shape.rows; rowIdx++) {
+            JRow row = table.row();
+            boolean fixed = shape.mixedWidths && rowIdx % 2 == 1;
+            for (int colIdx = 0; colIdx < shape.cols; colIdx++) {
+                JCol col = row.col().content(parser.decorate(shape.content(rowIdx, colIdx),
+                                                             colIdx));
+                if (fixed) {
+                    // Skew the widths so the borders of consecutive rows do not line up
+                    int width = colIdx < shape.cols - 1 ?
+                                tableWidth / (shape.cols + 1) :
+                                tableWidth - (shape.cols - 1) * (tableWidth / (shape.cols + 1));
+                    col.width(width);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public List<String> render() {
+        return table.render();
+    }
+}
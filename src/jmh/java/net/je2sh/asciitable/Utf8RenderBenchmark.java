@@ -0,0 +1,75 @@
+package net.je2sh.asciitable;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+
+/**
+ * Compares {@link JTable#renderUtf8(ByteBuffer)} into a reused buffer with rendering the lines
+ * as Strings and encoding them afterwards, which is what writing {@link JTable#render()} to a
+ * byte oriented destination amounts to.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Utf8RenderBenchmark {
+
+    @Param({"4", "8"})
+    public int columns;
+
+    @Param({"ascii", "unicode"})
+    public String content;
+
+    private JTable table;
+    private ByteBuffer buffer;
+
+    @Setup
+    public void setup() {
+        String cell = "ascii".equals(content) ? "Lorem ipsum dolor sit amet " :
+                      "Lörem ïpsum dolor ─ sit ámet ";
+
+        table = JTable.of().width(columns * 20);
+        for (int rowIdx = 0; rowIdx < 1000; rowIdx++) {
+            JRow row = table.row();
+            for (int colIdx = 0; colIdx < columns; colIdx++) {
+                row.col().content(rowIdx % 3 == colIdx % 3 ? cell + cell : cell);
+            }
+        }
+        buffer = ByteBuffer.allocate(16 * 1024 * 1024);
+    }
+
+    @Benchmark
+    public ByteBuffer renderThenGetBytes() {
+        buffer.clear();
+        byte[] lineSeparator = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+        for (String line : table.render()) {
+            buffer.put(line.getBytes(StandardCharsets.UTF_8));
+            buffer.put(lineSeparator);
+        }
+        return buffer;
+    }
+
+    @Benchmark
+    public ByteBuffer renderUtf8() {
+        buffer.clear();
+        table.renderUtf8(buffer);
+        return buffer;
+    }
+}
@@ -0,0 +1,223 @@
+package net.je2sh.asciitable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+
+
+/**
+ * Fits a table to the width of a terminal rather than to the width of the table, so that narrow
+ * terminals or tables with many columns neither fail nor end up deeply wrapped.
+ * <p>
+ * Lines are never wider than the terminal. Columns split the width left by the borders, explicit
+ * column widths being ignored. When columns would be narrower than a minimum width, optional
+ * columns are dropped, lowest priority first. If the remaining columns still do not fit, every row
+ * but the first is written as a record instead: a line per remaining column holding the content
+ * of the same column of the first row as key followed by its own content, cut to the terminal
+ * width. Either way no column is squeezed into a handful of characters per line and optional
+ * columns are only shown when every column fits.
+ * <pre>{@code
+ * table.render(AdaptiveLayout.of(terminalWidth).optional(3, 0).optional(2, 1))
+ *      .forEach(System.out::println);
+ * }</pre>
+ *
+ * @see JTable#render(AdaptiveLayout)
+ */
+public class AdaptiveLayout {
+
+    /**
+     * Default minimum width of a column, padding included
+     */
+    public static final int DEFAULT_MIN_COL_WIDTH = 8;
+
+    /**
+     * Width assumed when the terminal width is unknown
+     */
+    private static final int DEFAULT_TERMINAL_WIDTH = 80;
+
+    private final int terminalWidth;
+    private int minColWidth = DEFAULT_MIN_COL_WIDTH;
+
+    /**
+     * Priority of the optional columns by column index
+     */
+    private final Map<Integer, Integer> priorities = new HashMap<>();
+
+    private AdaptiveLayout(int terminalWidth) {
+        if (terminalWidth <= 0) {
+            throw new IllegalArgumentException("Terminal width must be positive but got " +
+                                               terminalWidth);
+        }
+        this.terminalWidth = terminalWidth;
+    }
+
+    /**
+     * @param terminalWidth Number of columns of the terminal
+     * @return An adaptive layout where every column is required
+     */
+    public static AdaptiveLayout of(int terminalWidth) {
+        return new AdaptiveLayout(terminalWidth);
+    }
+
+    /**
+     * Same as {@link #of(int)} with the width given by the {@code COLUMNS} environment variable,
+     * 80 if not set or invalid. Note that shells do not always export this variable.
+     *
+     * @return An adaptive layout where every column is required
+     */
+    public static AdaptiveLayout fromEnvironment() {
+        String columns = System.getenv("COLUMNS");
+        int terminalWidth = DEFAULT_TERMINAL_WIDTH;
+        if (columns != null) {
+            try {
+                terminalWidth = Math.max(1, Integer.parseInt(columns.trim()));
+            }
+            catch (NumberFormatException e) {
+                // Not a terminal width, keep the default
+            }
+        }
+        return new AdaptiveLayout(terminalWidth);
+    }
+
+    /**
+     * @param minColWidth Width below which columns are dropped or rows written as records,
+     *                    padding included. Defaults to {@value #DEFAULT_MIN_COL_WIDTH}
+     * @return This layout
+     */
+    public AdaptiveLayout minColWidth(int minColWidth) {
+        if (minColWidth <= 0) {
+            throw new IllegalArgumentException("Minimum column width must be positive but got " +
+                                               minColWidth);
+        }
+        this.minColWidth = minColWidth;
+        return this;
+    }
+
+    /**
+     * Allows a column to be dropped when the columns do not fit. Columns with the lowest
+     * priority are dropped first, the rightmost one first among equal priorities.
+     *
+     * @param colIdx   Index of the column
+     * @param priority Priority of the column
+     * @return This layout
+     */
+    public AdaptiveLayout optional(int colIdx, int priority) {
+        priorities.put(colIdx, priority);
+        return this;
+    }
+
+    public int getTerminalWidth() {
+        return terminalWidth;
+    }
+
+    public int getMinColWidth() {
+        return minColWidth;
+    }
+
+    /**
+     * Renders {@literal table} fitting the terminal.
+     *
+     * @param table        Table to be rendered
+     * @param lineConsumer Receives each line as soon as it is rendered
+     */
+    void render(JTable table, Consumer<String> lineConsumer) {
+        List<JRow> rows = table.getRows();
+        int colCount = 0;
+        for (JRow row : rows) {
+            colCount = Math.max(colCount, row.getCols().size());
+        }
+
+        boolean[] dropped = new boolean[colCount];
+        int kept = colCount;
+        for (int colIdx : dropOrder(colCount)) {
+            if (kept <= 1 || fits(kept)) {
+                break;
+            }
+            dropped[colIdx] = true;
+            kept--;
+        }
+
+        if (kept > 0 && !fits(kept)) {
+            TableFormat.RowWriter writer = TableFormats.records(terminalWidth).writer(table);
+            for (JRow row : rows) {
+                writer.write(project(row, table, dropped), lineConsumer);
+            }
+            writer.end(lineConsumer);
+            return;
+        }
+
+        // A vertical line on each side of every column
+        JTable adapted = table.frozenWith(terminalWidth - kept - 1,
+                                          footers(table.getFooters(), dropped));
+        List<JRow> adaptedRows = new ArrayList<>(rows.size());
+        for (JRow row : rows) {
+            adaptedRows.add(project(row, adapted, dropped));
+        }
+        new TableRenderer(adapted, adaptedRows).render(lineConsumer);
+    }
+
+    /**
+     * @return Whether {@literal colCount} columns get at least the minimum width each
+     */
+    private boolean fits(int colCount) {
+        return terminalWidth - colCount - 1 >= colCount * minColWidth;
+    }
+
+    /**
+     * @return Indexes of the optional columns, in the order they are dropped
+     */
+    private List<Integer> dropOrder(int colCount) {
+        List<Integer> order = new ArrayList<>();
+        for (int colIdx : priorities.keySet()) {
+            if (colIdx < colCount) {
+                order.add(colIdx);
+            }
+        }
+        order.sort((a, b) -> {
+            int byPriority = Integer.compare(priorities.get(a), priorities.get(b));
+            return byPriority != 0 ? byPriority : Integer.compare(b, a);
+        });
+        return order;
+    }
+
+    /**
+     * @return The kept columns of {@literal row}, without explicit width, belonging to
+     * {@literal table}
+     */
+    private static JRow project(JRow row, JTable table, boolean[] dropped) {
+        JRow projected = new JRow(table);
+        projected.setPadding(row.getPadding());
+        projected.setAggregated(row.isAggregated());
+        List<JCol> cols = row.getCols();
+        for (int colIdx = 0; colIdx < cols.size(); colIdx++) {
+            if (!dropped[colIdx]) {
+                JCol col = cols.get(colIdx).copy(projected);
+                col.explicitWidth(null);
+                projected.getCols().add(col);
+            }
+        }
+        return projected;
+    }
+
+    /**
+     * @return The footers of the kept columns, indexed as the kept columns
+     */
+    private static Map<Integer, Object> footers(Map<Integer, Object> footers, boolean[] dropped) {
+        Map<Integer, Object> result = new TreeMap<>();
+        int keptIdx = 0;
+        for (int colIdx = 0; colIdx < dropped.length; colIdx++) {
+            if (!dropped[colIdx]) {
+                Object footer = footers.get(colIdx);
+                if (footer != null) {
+                    result.put(keptIdx, footer);
+                }
+                keptIdx++;
+            }
+        }
+        return result;
+    }
+}
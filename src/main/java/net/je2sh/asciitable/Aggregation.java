@@ -0,0 +1,354 @@
+package net.je2sh.asciitable;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+
+
+/**
+ * Aggregation of the numeric values of a column, rendered in the footer of the table.
+ * <p>
+ * Values are aggregated as the rows are rendered, in constant memory: percentiles are exact for
+ * up to 100 values, then estimated with the P² algorithm (Jain and Chlamtac), which only keeps
+ * five markers. Cells which are neither a {@link Number} nor a number as text are ignored, as
+ * are rows excluded with {@link JRow#aggregated(boolean)}. Headers which may look numeric (e.g. a
+ * year) must be excluded that way, which {@link JColumnarTable} and {@link JTopTable} do for
+ * their own header.
+ * <p>
+ * Results are rendered as integers when integral, otherwise with at most two decimals.
+ *
+ * @see JTable#footer(int, Aggregation)
+ */
+public class Aggregation {
+
+    private final Supplier<Accumulator> accumulators;
+
+    private Aggregation(Supplier<Accumulator> accumulators) {
+        this.accumulators = accumulators;
+    }
+
+    /**
+     * @return Sum of the values, 0 if none
+     */
+    public static Aggregation sum() {
+        return new Aggregation(Sum::new);
+    }
+
+    /**
+     * @return Number of values
+     */
+    public static Aggregation count() {
+        return new Aggregation(Count::new);
+    }
+
+    /**
+     * @return Average of the values, empty if none
+     */
+    public static Aggregation avg() {
+        return new Aggregation(Average::new);
+    }
+
+    /**
+     * @return Smallest value, empty if none
+     */
+    public static Aggregation min() {
+        return new Aggregation(() -> new Extreme(-1));
+    }
+
+    /**
+     * @return Largest value, empty if none
+     */
+    public static Aggregation max() {
+        return new Aggregation(() -> new Extreme(1));
+    }
+
+    /**
+     * @param percentile Percentile to be estimated, between 0 and 1 exclusive (e.g. 0.5 for the
+     *                   median)
+     * @return Estimated percentile of the values, empty if none
+     */
+    public static Aggregation percentile(double percentile) {
+        if (!(percentile > 0 && percentile < 1)) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 1 but got " +
+                                               percentile);
+        }
+        return new Aggregation(() -> new Percentile(percentile));
+    }
+
+    /**
+     * @return Estimated 95<sup>th</sup> percentile of the values, empty if none
+     * @see #percentile(double)
+     */
+    public static Aggregation p95() {
+        return percentile(0.95);
+    }
+
+    /**
+     * @return A new accumulator, without any value
+     */
+    Accumulator accumulator() {
+        return accumulators.get();
+    }
+
+    /**
+     * @return The numeric value of the content of {@literal col}, {@code null} if not numeric
+     */
+    static Double valueOf(JCol col) {
+        Object content = col.getContent();
+        if (content instanceof Number) {
+            return ((Number) content).doubleValue();
+        }
+        String text = col.contentString().trim();
+        if (text.isEmpty()) {
+            return null;
+        }
+        char first = text.charAt(0);
+        if (!Character.isDigit(first) && first != '-' && first != '+' && first != '.') {
+            // Most text, checked without the cost of an exception
+            return null;
+        }
+        try {
+            return Double.parseDouble(text);
+        }
+        catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    static String format(double value) {
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return Double.toString(value);
+        }
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP).stripTrailingZeros()
+                         .toPlainString();
+    }
+
+    /**
+     * Running aggregation of the values of a column during a single render
+     */
+    abstract static class Accumulator {
+
+        abstract void add(double value);
+
+        /**
+         * @return Content of the footer cell
+         */
+        abstract String result();
+    }
+
+    private static final class Sum extends Accumulator {
+
+        private double sum;
+
+        @Override
+        void add(double value) {
+            sum += value;
+        }
+
+        @Override
+        String result() {
+            return format(sum);
+        }
+    }
+
+    private static final class Count extends Accumulator {
+
+        private long count;
+
+        @Override
+        void add(double value) {
+            count++;
+        }
+
+        @Override
+        String result() {
+            return Long.toString(count);
+        }
+    }
+
+    private static final class Average extends Accumulator {
+
+        private double sum;
+        private long count;
+
+        @Override
+        void add(double value) {
+            sum += value;
+            count++;
+        }
+
+        @Override
+        String result() {
+            return count == 0 ? "" : format(sum / count);
+        }
+    }
+
+    private static final class Extreme extends Accumulator {
+
+        /**
+         * 1 for the largest value, -1 for the smallest
+         */
+        private final int sign;
+        private double extreme;
+        private boolean any;
+
+        private Extreme(int sign) {
+            this.sign = sign;
+        }
+
+        @Override
+        void add(double value) {
+            if (!any || Double.compare(value, extreme) * sign > 0) {
+                extreme = value;
+                any = true;
+            }
+        }
+
+        @Override
+        String result() {
+            return any ? format(extreme) : "";
+        }
+    }
+
+    /**
+     * P² estimation of a percentile: five markers track the minimum, the percentile, the maximum
+     * and the halfway points in between. Each value shifts the position of the markers above it,
+     * markers drifting from their desired position are adjusted with a piecewise parabolic
+     * prediction of their height.
+     * <p>
+     * The first values are kept as they are, the percentile is exact until they no longer fit.
+     * The markers then start from the exact quantiles of those values, which estimates much
+     * better than starting from the first five.
+     */
+    private static final class Percentile extends Accumulator {
+
+        private static final int EXACT_VALUES = 100;
+
+        private final double percentile;
+
+        /**
+         * Values kept until there are too many of them, {@code null} afterwards
+         */
+        private double[] values = new double[EXACT_VALUES];
+
+        /**
+         * Height and position of each marker
+         */
+        private final double[] heights = new double[5];
+        private final int[] positions = new int[5];
+
+        /**
+         * Desired position of each marker and its increment per value
+         */
+        private final double[] desired = new double[5];
+        private final double[] increments;
+
+        private long count;
+
+        private Percentile(double percentile) {
+            this.percentile = percentile;
+            this.increments = new double[]{0, percentile / 2, percentile, (1 + percentile) / 2, 1};
+        }
+
+        @Override
+        void add(double value) {
+            if (values != null) {
+                if (count < values.length) {
+                    values[(int) count++] = value;
+                    return;
+                }
+                initMarkers();
+            }
+            count++;
+
+            // Cell k holds the value, between markers k and k + 1
+            int k;
+            if (value < heights[0]) {
+                heights[0] = value;
+                k = 0;
+            }
+            else if (value >= heights[4]) {
+                heights[4] = value;
+                k = 3;
+            }
+            else {
+                k = 0;
+                while (k < 3 && value >= heights[k + 1]) {
+                    k++;
+                }
+            }
+            for (int i = k + 1; i < 5; i++) {
+                positions[i]++;
+            }
+            for (int i = 0; i < 5; i++) {
+                desired[i] += increments[i];
+            }
+
+            for (int i = 1; i <= 3; i++) {
+                double drift = desired[i] - positions[i];
+                if ((drift >= 1 && positions[i + 1] - positions[i] > 1) ||
+                    (drift <= -1 && positions[i - 1] - positions[i] < -1))
+                {
+                    int step = drift > 0 ? 1 : -1;
+                    double height = parabolic(i, step);
+                    if (heights[i - 1] < height && height < heights[i + 1]) {
+                        heights[i] = height;
+                    }
+                    else {
+                        heights[i] += step * (heights[i + step] - heights[i]) /
+                                      (positions[i + step] - positions[i]);
+                    }
+                    positions[i] += step;
+                }
+            }
+        }
+
+        /**
+         * Places the markers at the exact quantiles of the values kept so far
+         */
+        private void initMarkers() {
+            Arrays.sort(values);
+            int last = values.length - 1;
+            for (int i = 0; i < 5; i++) {
+                desired[i] = last * increments[i];
+                // Markers must keep distinct positions
+                int position = (int) Math.round(desired[i]);
+                positions[i] = i == 0 ? 0 : Math.min(Math.max(position, positions[i - 1] + 1),
+                                                     last - (4 - i));
+                heights[i] = values[positions[i]];
+            }
+            values = null;
+        }
+
+        private double parabolic(int i, int step) {
+            double below = positions[i] - positions[i - 1];
+            double above = positions[i + 1] - positions[i];
+            return heights[i] + step / (double) (positions[i + 1] - positions[i - 1]) *
+                                ((below + step) * (heights[i + 1] - heights[i]) / above +
+                                 (above - step) * (heights[i] - heights[i - 1]) / below);
+        }
+
+        @Override
+        String result() {
+            if (count == 0) {
+                return "";
+            }
+            if (values == null) {
+                return format(heights[2]);
+            }
+
+            // Exact, interpolated between the closest values
+            double[] sorted = Arrays.copyOf(values, (int) count);
+            Arrays.sort(sorted);
+            double rank = percentile * (sorted.length - 1);
+            int lower = (int) Math.floor(rank);
+            int upper = Math.min(lower + 1, sorted.length - 1);
+            return format(sorted[lower] + (rank - lower) * (sorted[upper] - sorted[lower]));
+        }
+    }
+}
@@ -14,4 +14,9 @@ public class AnsiContentParser implements ContentParser {
     public int getLength(Object content) {
         return new AnsiString(content.toString()).length();
     }
+
+    @Override
+    public int escapeLength(CharSequence content, int index) {
+        return AnsiScanner.escapeLength(content, index);
+    }
 }
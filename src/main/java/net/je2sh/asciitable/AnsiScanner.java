@@ -0,0 +1,99 @@
+package net.je2sh.asciitable;
+
+/**
+ * Single pass scanner of ANSI escape sequences.
+ * <p>
+ * Recognizes the sequences defined by ECMA-48:
+ * <ul>
+ * <li>Control sequences ({@code ESC [ parameters intermediates final}), e.g. SGR colors</li>
+ * <li>Operating system commands ({@code ESC ] ...}) terminated by {@code BEL} or
+ * {@code ESC \}</li>
+ * <li>Character set designations ({@code ESC ( X})</li>
+ * <li>Any other two character escape ({@code ESC X})</li>
+ * </ul>
+ * Sequences truncated by the end of the content are considered invisible as well.
+ */
+final class AnsiScanner {
+
+    static final char ESC = '\u001B';
+    private static final char BEL = '\u0007';
+
+    private AnsiScanner() {
+    }
+
+    /**
+     * Determines the length of the escape sequence starting at {@literal index}.
+     *
+     * @param content Content being scanned
+     * @param index   Position within {@literal content}
+     * @return The number of characters of the escape sequence starting at {@literal index}, or
+     * {@literal 0} if there is none
+     */
+    static int escapeLength(CharSequence content, int index) {
+        int length = content.length();
+        if (content.charAt(index) != ESC) {
+            return 0;
+        }
+        if (index + 1 >= length) {
+            return 1;
+        }
+
+        char introducer = content.charAt(index + 1);
+        int i = index + 2;
+        if (introducer == '[') {
+            while (i < length && content.charAt(i) >= 0x30 && content.charAt(i) <= 0x3F) {
+                i++;
+            }
+            while (i < length && content.charAt(i) >= 0x20 && content.charAt(i) <= 0x2F) {
+                i++;
+            }
+            if (i < length && content.charAt(i) >= 0x40 && content.charAt(i) <= 0x7E) {
+                i++;
+            }
+            return i - index;
+        }
+        else if (introducer == ']') {
+            while (i < length) {
+                char c = content.charAt(i);
+                if (c == BEL) {
+                    return i + 1 - index;
+                }
+                if (c == ESC && i + 1 < length && content.charAt(i + 1) == '\\') {
+                    return i + 2 - index;
+                }
+                i++;
+            }
+            return length - index;
+        }
+        else if (introducer == '(' || introducer == ')' || introducer == '*' ||
+                 introducer == '+') {
+            return Math.min(3, length - index);
+        }
+        else if (introducer >= 0x40 && introducer <= 0x5F) {
+            return 2;
+        }
+        return 1;
+    }
+
+    /**
+     * @param content Content to be measured
+     * @return The number of characters of {@literal content} which are not part of an escape
+     * sequence
+     */
+    static int visibleLength(CharSequence content) {
+        int length = content.length();
+        int visible = 0;
+        int i = 0;
+        while (i < length) {
+            int escapeLength = escapeLength(content, i);
+            if (escapeLength > 0) {
+                i += escapeLength;
+            }
+            else {
+                visible++;
+                i++;
+            }
+        }
+        return visible;
+    }
+}
@@ -0,0 +1,267 @@
+package net.je2sh.asciitable;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import net.je2sh.asciitable.style.JPadding;
+
+
+
+/**
+ * Sizes the columns without explicit width based on their content, instead of evenly splitting
+ * the available width between them.
+ * <p>
+ * Each column is measured for its minimum width (the longest word) and its preferred width (the
+ * longest line), padding included. Columns get their preferred width whenever possible. Otherwise
+ * each column gets at least its minimum width and the remaining width is split proportionally to
+ * how much each column is missing to reach its preferred width.
+ * <p>
+ * Rows are grouped by their number of columns, i.e. the i<sup>th</sup> column of rows with the
+ * same number of columns is sized consistently. To avoid measuring every row of large tables, only
+ * a sample of the rows may be measured.
+ *
+ * @see JTable#autoFit(AutoFit)
+ */
+public class AutoFit {
+
+    private final int sampleSize;
+    private final boolean randomSample;
+
+    /**
+     * Seed of the random sample, {@code null} for a different sample on each measurement
+     */
+    private final Long seed;
+
+    private AutoFit(int sampleSize, boolean randomSample, Long seed) {
+        if (sampleSize <= 0) {
+            throw new IllegalArgumentException("Sample size must be positive but got " +
+                                               sampleSize);
+        }
+        this.sampleSize = sampleSize;
+        this.randomSample = randomSample;
+        this.seed = seed;
+    }
+
+    /**
+     * @return Auto fit measuring every row of the table
+     */
+    public static AutoFit allRows() {
+        return new AutoFit(Integer.MAX_VALUE, false, null);
+    }
+
+    /**
+     * @param sampleSize How many rows to measure
+     * @return Auto fit measuring only the first {@literal sampleSize} rows of the table
+     */
+    public static AutoFit firstRows(int sampleSize) {
+        return new AutoFit(sampleSize, false, null);
+    }
+
+    /**
+     * @param sampleSize How many rows to measure
+     * @return Auto fit measuring {@literal sampleSize} rows picked at random from the whole table
+     */
+    public static AutoFit reservoir(int sampleSize) {
+        return new AutoFit(sampleSize, true, null);
+    }
+
+    /**
+     * Same as {@link #reservoir(int)} with a fixed seed, making the sample reproducible: every
+     * measurement of the same rows picks the same sample.
+     *
+     * @param sampleSize How many rows to measure
+     * @param seed       Seed of the random sample
+     * @return Auto fit measuring {@literal sampleSize} rows picked at random from the whole table
+     */
+    public static AutoFit reservoir(int sampleSize, long seed) {
+        return new AutoFit(sampleSize, true, seed);
+    }
+
+    /**
+     * Measures a sample of the given rows. Each row is measured right after being retrieved,
+     * therefore {@literal rows} may reuse the same {@link JRow} instance between positions.
+     *
+     * @param rows          Rows of the table
+     * @param contentParser Parser used to measure the content
+     * @return The measured widths, used to size the columns
+     */
+    Fitting measure(List<JRow> rows, ContentParser contentParser) {
+        ContentParser measuring = LengthContentParser.measuring(contentParser);
+        Fitting fitting = new Fitting();
+        for (int rowIdx : sample(rows.size())) {
+            fitting.measure(rows.get(rowIdx), measuring);
+        }
+        return fitting;
+    }
+
+    /**
+     * @return The positions of the rows to be measured
+     */
+    private int[] sample(int rowCount) {
+        int[] sample = new int[Math.min(sampleSize, rowCount)];
+        for (int i = 0; i < sample.length; i++) {
+            sample[i] = i;
+        }
+        if (randomSample) {
+            Random random = seed == null ? new Random() : new Random(seed);
+            // Reservoir sampling, each row ends up in the sample with the same probability
+            for (int i = sample.length; i < rowCount; i++) {
+                int replaced = random.nextInt(i + 1);
+                if (replaced < sample.length) {
+                    sample[replaced] = i;
+                }
+            }
+        }
+        return sample;
+    }
+
+    /**
+     * Measured minimum and preferred widths of each column, grouped by number of columns
+     */
+    static class Fitting {
+
+        private final Map<Integer, int[][]> widthsByColCount = new HashMap<>();
+
+        private void measure(JRow row, ContentParser contentParser) {
+            List<JCol> cols = row.getCols();
+            int[][] widths = widthsByColCount.computeIfAbsent(cols.size(),
+                                                              size -> new int[2][size]);
+            for (int i = 0; i < cols.size(); i++) {
+                JCol col = cols.get(i);
+                JPadding padding = col.getPadding();
+                int[] measured = measure(col.contentString(), contentParser, col.charLimit());
+                int horizontalPadding = padding.getLeft() + padding.getRight();
+                widths[0][i] = Math.max(widths[0][i], measured[0] + horizontalPadding);
+                widths[1][i] = Math.max(widths[1][i], measured[1] + horizontalPadding);
+            }
+        }
+
+        /**
+         * @return The longest word and the longest line of the first {@literal maxChars}
+         * characters of {@literal content}
+         */
+        private static int[] measure(String content, ContentParser contentParser, int maxChars) {
+            int longestWord = 0;
+            int longestLine = 0;
+            int word = 0;
+            int line = 0;
+            int chars = 0;
+            int i = 0;
+            while (i < content.length() && chars < maxChars) {
+                int escapeLength = contentParser.escapeLength(content, i);
+                if (escapeLength > 0) {
+                    i += escapeLength;
+                    continue;
+                }
+                int codePoint = content.codePointAt(i);
+                if (codePoint == '\n') {
+                    line = 0;
+                    word = 0;
+                }
+                else if (codePoint == ' ') {
+                    line++;
+                    word = 0;
+                }
+                else {
+                    int charWidth = contentParser.charWidth(codePoint);
+                    line += charWidth;
+                    word += charWidth;
+                }
+                longestWord = Math.max(longestWord, word);
+                longestLine = Math.max(longestLine, line);
+                chars++;
+                i += Character.charCount(codePoint);
+            }
+            return new int[]{longestWord, longestLine};
+        }
+
+        /**
+         * Splits {@literal availableWidth} between the given columns.
+         *
+         * @param colCount       Number of columns of the row
+         * @param dynamicCols    Indexes of the columns to be sized
+         * @param availableWidth Width to split between the columns
+         * @return The width of each column, indexed as {@literal dynamicCols}, or {@code null} if
+         * no row with {@literal colCount} columns was measured or the width is too short to give
+         * each column a single space
+         */
+        int[] fit(int colCount, int[] dynamicCols, int availableWidth) {
+            int[][] widths = widthsByColCount.get(colCount);
+            if (widths == null || availableWidth < dynamicCols.length) {
+                return null;
+            }
+
+            int[] min = new int[dynamicCols.length];
+            int[] preferred = new int[dynamicCols.length];
+            int totalMin = 0;
+            int totalPreferred = 0;
+            for (int i = 0; i < dynamicCols.length; i++) {
+                min[i] = Math.max(1, widths[0][dynamicCols[i]]);
+                preferred[i] = Math.max(min[i], widths[1][dynamicCols[i]]);
+                totalMin += min[i];
+                totalPreferred += preferred[i];
+            }
+
+            if (totalPreferred <= availableWidth) {
+                // Everything fits, the spare width is split proportionally to the content
+                return distribute(preferred, preferred, availableWidth - totalPreferred);
+            }
+            if (totalMin <= availableWidth) {
+                int[] missing = new int[min.length];
+                for (int i = 0; i < min.length; i++) {
+                    missing[i] = preferred[i] - min[i];
+                }
+                return distribute(min, missing, availableWidth - totalMin);
+            }
+
+            // Not even the longest words fit, they will have to be broken
+            int[] ones = new int[min.length];
+            for (int i = 0; i < ones.length; i++) {
+                ones[i] = 1;
+            }
+            int[] weights = new int[min.length];
+            for (int i = 0; i < min.length; i++) {
+                weights[i] = min[i] - 1;
+            }
+            return distribute(ones, weights, availableWidth - dynamicCols.length);
+        }
+
+        /**
+         * Adds {@literal spare} to {@literal base} proportionally to {@literal weights}. Rounding
+         * leftovers go one by one to the heaviest columns.
+         */
+        private static int[] distribute(int[] base, int[] weights, int spare) {
+            int[] result = base.clone();
+            long totalWeight = 0;
+            for (int weight : weights) {
+                totalWeight += weight;
+            }
+            if (totalWeight == 0) {
+                result[result.length - 1] += spare;
+                return result;
+            }
+
+            int assigned = 0;
+            for (int i = 0; i < result.length; i++) {
+                int share = (int) (spare * (long) weights[i] / totalWeight);
+                result[i] += share;
+                assigned += share;
+            }
+
+            boolean[] bumped = new boolean[result.length];
+            for (int leftover = spare - assigned; leftover > 0; leftover--) {
+                int heaviest = -1;
+                for (int i = 0; i < weights.length; i++) {
+                    if (!bumped[i] && (heaviest < 0 || weights[i] > weights[heaviest])) {
+                        heaviest = i;
+                    }
+                }
+                bumped[heaviest] = true;
+                result[heaviest]++;
+            }
+            return result;
+        }
+    }
+}
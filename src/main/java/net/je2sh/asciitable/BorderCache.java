@@ -0,0 +1,130 @@
+package net.je2sh.asciitable;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import net.je2sh.asciitable.style.Chars;
+
+
+
+/**
+ * Cache of rendered borders. Consecutive rows usually share their layout, in which case the
+ * border between them is always the same string.
+ * <p>
+ * Borders are keyed by theme (by identity), column sizes and the column sizes of the previous row
+ * (by content). Since {@link ColumnLayout} returns the same array for rows sharing a shape,
+ * renderers also remember their last border by identity so repeated layouts need no lookup at
+ * all.
+ * <p>
+ * Instances are thread safe and take no lock, so that a cache shared by frozen snapshots can be
+ * used by many renders at once.
+ *
+ * @see JTable#renderTopBorder(int[], int[], int, Chars)
+ * @see JTable#renderBottomBorder(int[], Chars)
+ */
+class BorderCache {
+
+    /**
+     * Upper bound of cached borders. Tables usually have a handful of layouts, this simply
+     * prevents pathological tables from growing the cache indefinitely.
+     */
+    private static final int MAX_CACHED_BORDERS = 64;
+
+    private final Map<Key, String> borders = new ConcurrentHashMap<>();
+
+    /**
+     * @param theme            Theme of the table
+     * @param colSizes         Column sizes of the row
+     * @param previousColSizes Column sizes of the previous row, {@code null} for the first row
+     * @param tableWidth       Width of the table
+     * @return The top border of the row
+     * @see JTable#renderTopBorder(int[], int[], int, Chars)
+     */
+    String topBorder(Chars theme, int[] colSizes, int[] previousColSizes, int tableWidth) {
+        Key key = new Key(theme, colSizes, previousColSizes);
+        String border = borders.get(key);
+        if (border == null) {
+            border = JTable.renderTopBorder(colSizes, previousColSizes, tableWidth, theme);
+            put(key, border);
+        }
+        return border;
+    }
+
+    /**
+     * @param theme    Theme of the table
+     * @param colSizes Column sizes of the last row
+     * @return The bottom border of the last row
+     * @see JTable#renderBottomBorder(int[], Chars)
+     */
+    String bottomBorder(Chars theme, int[] colSizes) {
+        Key key = new Key(theme, colSizes, Key.BOTTOM);
+        String border = borders.get(key);
+        if (border == null) {
+            border = JTable.renderBottomBorder(colSizes, theme);
+            put(key, border);
+        }
+        return border;
+    }
+
+    /**
+     * Caches {@literal border}. Renders racing on the same key render the same border, so either
+     * one may be kept.
+     */
+    private void put(Key key, String border) {
+        if (borders.size() >= MAX_CACHED_BORDERS) {
+            borders.clear();
+        }
+        borders.put(key.copy(), border);
+    }
+
+    private static final class Key {
+
+        /**
+         * Marks bottom borders, which have no previous row
+         */
+        private static final int[] BOTTOM = new int[0];
+
+        private final Chars theme;
+        private final int[] colSizes;
+        private final int[] previousColSizes;
+        private final int hash;
+
+        private Key(Chars theme, int[] colSizes, int[] previousColSizes) {
+            this.theme = theme;
+            this.colSizes = colSizes;
+            this.previousColSizes = previousColSizes;
+            this.hash = 31 * (31 * System.identityHashCode(theme) + Arrays.hashCode(colSizes)) +
+                        Arrays.hashCode(previousColSizes);
+        }
+
+        /**
+         * @return A key owning its sizes, which are only guaranteed not to be modified while
+         * rendering
+         */
+        private Key copy() {
+            return new Key(theme, colSizes.clone(),
+                           previousColSizes == null || previousColSizes == BOTTOM ?
+                           previousColSizes : previousColSizes.clone());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return theme == other.theme &&
+                   Arrays.equals(colSizes, other.colSizes) &&
+                   Arrays.equals(previousColSizes, other.previousColSizes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package net.je2sh.asciitable;
+
+import net.je2sh.asciitable.style.JPadding;
+import net.je2sh.asciitable.style.JTheme;
+import org.apache.commons.lang3.StringUtils;
+
+
+
+/**
+ * Pieces of text repeated on every line of a column (left border, padding, fill), computed once
+ * for a theme, padding and width instead of once per line.
+ *
+ * @see JCol#render(ColumnFragments, Integer, java.util.List)
+ */
+final class ColumnFragments {
+
+    final JTheme theme;
+    final JPadding padding;
+    final int width;
+
+    /**
+     * Left border of the column, empty if the theme has no vertical line
+     */
+    final String verticalLine;
+    final String leftPadding;
+    final String rightPadding;
+
+    /**
+     * Whole lines (left border included) of top and bottom padding
+     */
+    final String topPaddingLine;
+    final String bottomPaddingLine;
+
+    /**
+     * {@literal width} fill characters, appended partially after the content of each line
+     */
+    final String fill;
+
+    private ColumnFragments(JTheme theme, JPadding padding, int width) {
+        this.theme = theme;
+        this.padding = padding;
+        this.width = width;
+        this.verticalLine = theme.vertical != Character.MIN_VALUE ?
+                            String.valueOf(theme.vertical) : "";
+        this.leftPadding = StringUtils.repeat(padding.getLeftCharacter(), padding.getLeft());
+        this.rightPadding = StringUtils.repeat(padding.getRightCharacter(), padding.getRight());
+        this.topPaddingLine = verticalLine + StringUtils.repeat(padding.getTopCharacter(), width);
+        this.bottomPaddingLine = verticalLine +
+                                 StringUtils.repeat(padding.getBottomCharacter(), width);
+        this.fill = StringUtils.repeat(padding.getRight() > 0 ? padding.getRightCharacter() : ' ',
+                                       width);
+    }
+
+    static ColumnFragments of(JTheme theme, JPadding padding, int width) {
+        return new ColumnFragments(theme, padding, width);
+    }
+
+    /**
+     * @return {@literal cached} if it was computed for the same theme, padding and width,
+     * otherwise new fragments
+     */
+    static ColumnFragments reuse(ColumnFragments cached, JTheme theme, JPadding padding,
+                                 int width)
+    {
+        if (cached != null && cached.theme == theme && cached.padding == padding &&
+            cached.width == width)
+        {
+            return cached;
+        }
+        return of(theme, padding, width);
+    }
+}
@@ -0,0 +1,195 @@
+package net.je2sh.asciitable;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+
+/**
+ * Computes the width of each column of a row, caching the result per column shape.
+ * <p>
+ * The shape of a row is given by its number of columns and their explicit widths (if any). Rows
+ * sharing a shape always produce the same widths, therefore these are only computed once and the
+ * same array is returned for all of them. Callers <strong>must not</strong> modify the returned
+ * arrays.
+ * <p>
+ * Instances are not thread safe.
+ */
+class ColumnLayout {
+
+    /**
+     * Marks a column without explicit width in a shape
+     */
+    private static final int DYNAMIC = Integer.MIN_VALUE;
+
+    /**
+     * Upper bound of cached shapes. Tables usually have a handful of shapes, this simply prevents
+     * pathological tables from growing the cache indefinitely.
+     */
+    private static final int MAX_CACHED_SHAPES = 64;
+
+    private final Map<Shape, int[]> cache = new HashMap<>();
+
+    /**
+     * Measured content widths used to size the columns without explicit width. If {@code null}
+     * these columns evenly split the available width.
+     */
+    private AutoFit.Fitting fitting;
+
+    /**
+     * Shape and widths of the last computed row, checked before the cache so consecutive rows
+     * sharing a shape need no lookup at all.
+     */
+    private int lastTableWidth;
+    private int[] lastShape;
+    private int[] lastSizes;
+
+    /**
+     * Sizes the columns without explicit width according to the given measurements from now on.
+     *
+     * @param fitting Measured content widths
+     * @see AutoFit
+     */
+    void fitting(AutoFit.Fitting fitting) {
+        this.fitting = fitting;
+        this.cache.clear();
+        this.lastShape = null;
+    }
+
+    /**
+     * Computes the width of each column. Unless auto fitting, the leftover of the width not evenly
+     * distributable between the columns without explicit width is applied to the last column.
+     *
+     * @param tableWidth Width of the table
+     * @param cols       Columns of the row
+     * @return The width of each column. Must not be modified.
+     * @throws IllegalArgumentException if the columns do not add up to the table width
+     */
+    int[] colSizes(int tableWidth, List<JCol> cols) {
+        if (lastShape != null && lastTableWidth == tableWidth && matches(lastShape, cols)) {
+            return lastSizes;
+        }
+
+        int[] shape = new int[cols.size()];
+        for (int i = 0; i < shape.length; i++) {
+            Integer width = cols.get(i).getWidth();
+            shape[i] = width == null ? DYNAMIC : width;
+        }
+
+        Shape key = new Shape(tableWidth, shape);
+        int[] sizes = cache.get(key);
+        if (sizes == null) {
+            sizes = compute(tableWidth, shape, fitting);
+            if (cache.size() >= MAX_CACHED_SHAPES) {
+                cache.clear();
+            }
+            cache.put(key, sizes);
+        }
+
+        lastTableWidth = tableWidth;
+        lastShape = shape;
+        lastSizes = sizes;
+        return sizes;
+    }
+
+    private static boolean matches(int[] shape, List<JCol> cols) {
+        if (shape.length != cols.size()) {
+            return false;
+        }
+        for (int i = 0; i < shape.length; i++) {
+            Integer width = cols.get(i).getWidth();
+            if (width == null ? shape[i] != DYNAMIC : shape[i] != width) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int[] compute(int tableWidth, int[] shape, AutoFit.Fitting fitting) {
+        int[] result = new int[shape.length];
+        int remainingWidth = tableWidth;
+        int dynamicCols = 0;
+
+        for (int i = 0; i < shape.length; i++) {
+            if (shape[i] == DYNAMIC) {
+                dynamicCols++;
+            }
+            else {
+                result[i] = shape[i];
+                remainingWidth -= shape[i];
+            }
+        }
+
+        int[] fitted = null;
+        if (dynamicCols > 0 && fitting != null) {
+            int[] dynamicIndexes = new int[dynamicCols];
+            for (int i = 0, j = 0; i < shape.length; i++) {
+                if (shape[i] == DYNAMIC) {
+                    dynamicIndexes[j++] = i;
+                }
+            }
+            fitted = fitting.fit(shape.length, dynamicIndexes, remainingWidth);
+            if (fitted != null) {
+                for (int j = 0; j < dynamicIndexes.length; j++) {
+                    result[dynamicIndexes[j]] = fitted[j];
+                }
+            }
+        }
+
+        if (dynamicCols > 0 && fitted == null) {
+            int leftoverWidth = remainingWidth % dynamicCols;
+            int colWidth = remainingWidth / dynamicCols;
+
+            for (int i = 0; i < shape.length; i++) {
+                if (shape[i] == DYNAMIC) {
+                    result[i] = colWidth;
+                }
+            }
+            if (leftoverWidth > 0) {
+                result[result.length - 1] = result[result.length - 1] + leftoverWidth;
+            }
+        }
+
+        int rowWidth = 0;
+        for (int size : result) {
+            rowWidth += size;
+        }
+        if (rowWidth != tableWidth) {
+            throw new IllegalArgumentException("Row width does not match table width. " +
+                                               "Expected " + tableWidth + " but got " + rowWidth);
+        }
+
+        return result;
+    }
+
+    private static class Shape {
+        private final int tableWidth;
+        private final int[] widths;
+        private final int hash;
+
+        Shape(int tableWidth, int[] widths) {
+            this.tableWidth = tableWidth;
+            this.widths = widths;
+            this.hash = 31 * tableWidth + Arrays.hashCode(widths);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Shape)) {
+                return false;
+            }
+            Shape shape = (Shape) o;
+            return tableWidth == shape.tableWidth && Arrays.equals(widths, shape.widths);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -6,11 +6,43 @@ package net.je2sh.asciitable;
  * Different implementations may consider parts of the content to be invisible and therefore should
  * not be accounted for.
  * This is particularly relevant when determining if a column needs to be wrapped.
+ * <p>
+ * Content is measured per character through {@link #escapeLength(CharSequence, int)} and
+ * {@link #charWidth(int)}. Parsers overriding neither of them along with
+ * {@link #getLength(Object)} are measured through {@link #getLength(Object)} instead, by probing
+ * the content for sequences measured as 0 long.
  *
- * @see JCol#wrapLines(String, int)
+ * @see JCol#render(net.je2sh.asciitable.style.JTheme, int, Integer)
  */
 public interface ContentParser {
 
     int getLength(Object content);
 
+    /**
+     * Determines whether an invisible sequence (e.g. an ANSI escape sequence) starts at the given
+     * position. Invisible sequences do not take any space and are never split when wrapping.
+     *
+     * @param content Content being inspected
+     * @param index   Position within {@literal content}
+     * @return The length of the invisible sequence starting at {@literal index}, or {@literal 0}
+     * if there is none
+     */
+    default int escapeLength(CharSequence content, int index) {
+        return 0;
+    }
+
+    /**
+     * Determines how many columns a visible character takes. Should be consistent with
+     * {@link #getLength(Object)}.
+     * <p>
+     * Defaults to the number of UTF-16 code units of the character, same as
+     * {@link String#length()}.
+     *
+     * @param codePoint Character being measured
+     * @return The number of columns taken by {@literal codePoint}
+     */
+    default int charWidth(int codePoint) {
+        return Character.charCount(codePoint);
+    }
+
 }
@@ -0,0 +1,185 @@
+package net.je2sh.asciitable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+
+
+/**
+ * Content parser that measures content in terminal cells rather than UTF-16 code units.
+ * <p>
+ * East Asian wide and fullwidth characters (e.g. CJK ideographs, Hangul, most emoji) take two
+ * cells, combining marks, format characters and control characters take none and surrogate pairs
+ * are measured as a single character.
+ * <p>
+ * Widths are looked up in a table precomputed once for all code points, so measuring does not
+ * involve any {@link Character} category check. Emoji sequences joined by zero width joiners are
+ * measured as the sum of their parts.
+ *
+ * @see <a href="https://www.unicode.org/reports/tr11/">Unicode East Asian Width</a>
+ */
+public class DisplayWidthContentParser implements ContentParser {
+
+    private final boolean ignoreAnsi;
+
+    /**
+     * Creates a parser which considers every character visible
+     */
+    public DisplayWidthContentParser() {
+        this(false);
+    }
+
+    /**
+     * @param ignoreAnsi Whether ANSI escape sequences should be considered invisible, as done by
+     *                   {@link FastAnsiContentParser}
+     */
+    public DisplayWidthContentParser(boolean ignoreAnsi) {
+        this.ignoreAnsi = ignoreAnsi;
+    }
+
+    @Override
+    public int getLength(Object content) {
+        CharSequence chars = content instanceof CharSequence ?
+                             (CharSequence) content : content.toString();
+        int length = chars.length();
+        int width = 0;
+        int i = 0;
+        while (i < length) {
+            int escapeLength = escapeLength(chars, i);
+            if (escapeLength > 0) {
+                i += escapeLength;
+            }
+            else {
+                int codePoint = Character.codePointAt(chars, i);
+                width += WidthTable.width(codePoint);
+                i += Character.charCount(codePoint);
+            }
+        }
+        return width;
+    }
+
+    @Override
+    public int escapeLength(CharSequence content, int index) {
+        return ignoreAnsi ? AnsiScanner.escapeLength(content, index) : 0;
+    }
+
+    @Override
+    public int charWidth(int codePoint) {
+        return WidthTable.width(codePoint);
+    }
+
+    /**
+     * Two level lookup table of the width of every code point. Code points are grouped in blocks
+     * of 256, identical blocks (the vast majority) are stored only once.
+     * <p>
+     * Built on first use.
+     */
+    static final class WidthTable {
+
+        private static final int BLOCK_BITS = 8;
+        private static final int BLOCK_SIZE = 1 << BLOCK_BITS;
+        private static final int BLOCK_MASK = BLOCK_SIZE - 1;
+
+        /**
+         * East Asian Wide (W) and Fullwidth (F) ranges, inclusive
+         */
+        private static final int[][] WIDE = {
+                {0x1100, 0x115F}, {0x231A, 0x231B}, {0x2329, 0x232A}, {0x23E9, 0x23EC},
+                {0x23F0, 0x23F0}, {0x23F3, 0x23F3}, {0x25FD, 0x25FE}, {0x2614, 0x2615},
+                {0x2648, 0x2653}, {0x267F, 0x267F}, {0x2693, 0x2693}, {0x26A1, 0x26A1},
+                {0x26AA, 0x26AB}, {0x26BD, 0x26BE}, {0x26C4, 0x26C5}, {0x26CE, 0x26CE},
+                {0x26D4, 0x26D4}, {0x26EA, 0x26EA}, {0x26F2, 0x26F3}, {0x26F5, 0x26F5},
+                {0x26FA, 0x26FA}, {0x26FD, 0x26FD}, {0x2705, 0x2705}, {0x270A, 0x270B},
+                {0x2728, 0x2728}, {0x274C, 0x274C}, {0x274E, 0x274E}, {0x2753, 0x2755},
+                {0x2757, 0x2757}, {0x2795, 0x2797}, {0x27B0, 0x27B0}, {0x27BF, 0x27BF},
+                {0x2B1B, 0x2B1C}, {0x2B50, 0x2B50}, {0x2B55, 0x2B55}, {0x2E80, 0x303E},
+                {0x3041, 0x33FF}, {0x3400, 0x4DBF}, {0x4E00, 0x9FFF}, {0xA000, 0xA4CF},
+                {0xA960, 0xA97F}, {0xAC00, 0xD7A3}, {0xF900, 0xFAFF}, {0xFE10, 0xFE19},
+                {0xFE30, 0xFE6F}, {0xFF00, 0xFF60}, {0xFFE0, 0xFFE6},
+                {0x16FE0, 0x16FE4}, {0x17000, 0x18AFF}, {0x1B000, 0x1B2FF},
+                {0x1F004, 0x1F004}, {0x1F0CF, 0x1F0CF}, {0x1F18E, 0x1F18E},
+                {0x1F191, 0x1F19A}, {0x1F200, 0x1F202}, {0x1F210, 0x1F23B},
+                {0x1F240, 0x1F248}, {0x1F250, 0x1F251}, {0x1F260, 0x1F265},
+                {0x1F300, 0x1F320}, {0x1F32D, 0x1F335}, {0x1F337, 0x1F37C},
+                {0x1F37E, 0x1F393}, {0x1F3A0, 0x1F3CA}, {0x1F3CF, 0x1F3D3},
+                {0x1F3E0, 0x1F3F0}, {0x1F3F4, 0x1F3F4}, {0x1F3F8, 0x1F43E},
+                {0x1F440, 0x1F440}, {0x1F442, 0x1F4FC}, {0x1F4FF, 0x1F53D},
+                {0x1F54B, 0x1F54E}, {0x1F550, 0x1F567}, {0x1F57A, 0x1F57A},
+                {0x1F595, 0x1F596}, {0x1F5A4, 0x1F5A4}, {0x1F5FB, 0x1F64F},
+                {0x1F680, 0x1F6C5}, {0x1F6CC, 0x1F6CC}, {0x1F6D0, 0x1F6D2},
+                {0x1F6D5, 0x1F6D7}, {0x1F6EB, 0x1F6EC}, {0x1F6F4, 0x1F6FC},
+                {0x1F7E0, 0x1F7EB}, {0x1F90C, 0x1F93A}, {0x1F93C, 0x1F945},
+                {0x1F947, 0x1F9FF}, {0x1FA70, 0x1FAFF}, {0x20000, 0x2FFFD},
+                {0x30000, 0x3FFFD}
+        };
+
+        /**
+         * Zero width ranges not covered by the combining mark and format categories, inclusive
+         */
+        private static final int[][] ZERO = {
+                {0x0000, 0x001F}, {0x007F, 0x009F}, {0x1160, 0x11FF}, {0x200B, 0x200B}
+        };
+
+        private static final int[][] MARKED_PLANES = {{0x00000, 0x3FFFF}, {0xE0000, 0xEFFFF}};
+
+        private static final char[] BLOCK_INDEX;
+        private static final byte[] BLOCKS;
+
+        static {
+            byte[] widths = new byte[Character.MAX_CODE_POINT + 1];
+            Arrays.fill(widths, (byte) 1);
+            for (int[] range : WIDE) {
+                Arrays.fill(widths, range[0], range[1] + 1, (byte) 2);
+            }
+            // Combining marks and format characters only exist in planes 0 to 3 and 14
+            for (int[] planes : MARKED_PLANES) {
+                for (int codePoint = planes[0]; codePoint <= planes[1]; codePoint++) {
+                    int type = Character.getType(codePoint);
+                    if (type == Character.NON_SPACING_MARK || type == Character.ENCLOSING_MARK ||
+                        (type == Character.FORMAT && codePoint != 0x00AD))
+                    {
+                        widths[codePoint] = 0;
+                    }
+                }
+            }
+            for (int[] range : ZERO) {
+                Arrays.fill(widths, range[0], range[1] + 1, (byte) 0);
+            }
+
+            int blockCount = widths.length >> BLOCK_BITS;
+            char[] blockIndex = new char[blockCount];
+            Map<String, Integer> uniqueBlocks = new HashMap<>();
+            byte[] blocks = new byte[widths.length];
+
+            for (int blockIdx = 0; blockIdx < blockCount; blockIdx++) {
+                int blockStart = blockIdx << BLOCK_BITS;
+                String key = new String(widths, blockStart, BLOCK_SIZE,
+                                        StandardCharsets.ISO_8859_1);
+                Integer unique = uniqueBlocks.get(key);
+                if (unique == null) {
+                    unique = uniqueBlocks.size();
+                    uniqueBlocks.put(key, unique);
+                    System.arraycopy(widths, blockStart, blocks, unique * BLOCK_SIZE,
+                                     BLOCK_SIZE);
+                }
+                blockIndex[blockIdx] = (char) unique.intValue();
+            }
+
+            BLOCK_INDEX = blockIndex;
+            BLOCKS = Arrays.copyOf(blocks, uniqueBlocks.size() * BLOCK_SIZE);
+        }
+
+        private WidthTable() {
+        }
+
+        static int width(int codePoint) {
+            if (codePoint < 0 || codePoint > Character.MAX_CODE_POINT) {
+                return 1;
+            }
+            return BLOCKS[(BLOCK_INDEX[codePoint >> BLOCK_BITS] << BLOCK_BITS) |
+                          (codePoint & BLOCK_MASK)];
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package net.je2sh.asciitable;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+
+/**
+ * Content parser that ignores ANSI sequences for the sake of content length calculations.
+ * <p>
+ * Drop-in replacement of {@link AnsiContentParser} which scans the content in a single pass
+ * without copying it. Optionally keeps the length of recently measured Strings, which pays off
+ * when the same content is repeated across a table.
+ * <p>
+ * Unlike {@link AnsiContentParser} malformed escape sequences are considered invisible as
+ * well and cursor movements (e.g. {@code ESC [ 3 C}) are not emulated as spaces.
+ *
+ * @see AnsiScanner
+ */
+public class FastAnsiContentParser implements ContentParser {
+
+    private final Map<String, Integer> cache;
+
+    /**
+     * Creates a parser without cache
+     */
+    public FastAnsiContentParser() {
+        this.cache = null;
+    }
+
+    /**
+     * Creates a parser which remembers the length of up to {@literal cacheSize} Strings, evicting
+     * the least recently used ones. The parser remains thread safe.
+     *
+     * @param cacheSize Maximum number of cached lengths
+     */
+    public FastAnsiContentParser(int cacheSize) {
+        if (cacheSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive but got " + cacheSize);
+        }
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<String, Integer>(16, 0.75f,
+                                                                                    true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    @Override
+    public int getLength(Object content) {
+        if (cache != null && content instanceof String) {
+            Integer cached = cache.get(content);
+            if (cached == null) {
+                cached = AnsiScanner.visibleLength((String) content);
+                cache.put((String) content, cached);
+            }
+            return cached;
+        }
+
+        return AnsiScanner.visibleLength(content instanceof CharSequence ?
+                                         (CharSequence) content : content.toString());
+    }
+
+    @Override
+    public int escapeLength(CharSequence content, int index) {
+        return AnsiScanner.escapeLength(content, index);
+    }
+}
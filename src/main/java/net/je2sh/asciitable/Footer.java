@@ -0,0 +1,89 @@
+package net.je2sh.asciitable;
+
+import java.util.List;
+import java.util.Map;
+
+
+
+/**
+ * Footer of a table being rendered, aggregating the rows as they are emitted and rendered as a
+ * final row laid out as the last one.
+ *
+ * @see JTable#footer(int, Aggregation)
+ * @see JTable#footer(int, Object)
+ */
+final class Footer {
+
+    private final Map<Integer, Object> cells;
+
+    /**
+     * Columns with an aggregation and their accumulators
+     */
+    private final int[] aggregated;
+    private final Aggregation.Accumulator[] accumulators;
+
+    /**
+     * @param cells Content of the footer by column index, either an {@link Aggregation} or fixed
+     *              content
+     */
+    Footer(Map<Integer, Object> cells) {
+        this.cells = cells;
+        int count = 0;
+        for (Object cell : cells.values()) {
+            if (cell instanceof Aggregation) {
+                count++;
+            }
+        }
+        this.aggregated = new int[count];
+        this.accumulators = new Aggregation.Accumulator[count];
+        int i = 0;
+        for (Map.Entry<Integer, Object> cell : cells.entrySet()) {
+            if (cell.getValue() instanceof Aggregation) {
+                aggregated[i] = cell.getKey();
+                accumulators[i++] = ((Aggregation) cell.getValue()).accumulator();
+            }
+        }
+    }
+
+    /**
+     * Adds the numeric values of the aggregated columns of {@literal row}, unless the row is
+     * excluded from aggregation
+     *
+     * @see JRow#aggregated(boolean)
+     */
+    void add(JRow row) {
+        if (!row.isAggregated()) {
+            return;
+        }
+        List<JCol> cols = row.getCols();
+        for (int i = 0; i < aggregated.length; i++) {
+            if (aggregated[i] < cols.size()) {
+                Double value = Aggregation.valueOf(cols.get(aggregated[i]));
+                if (value != null) {
+                    accumulators[i].add(value);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param table    Table being rendered
+     * @param colSizes Column sizes of the last row. Columns beyond them are left out
+     * @return The footer row, laid out as the last row
+     */
+    JRow row(JTable table, int[] colSizes) {
+        JRow row = new JRow(table);
+        for (int colIdx = 0; colIdx < colSizes.length; colIdx++) {
+            Object content = cells.get(colIdx);
+            if (content instanceof Aggregation) {
+                int i = 0;
+                while (aggregated[i] != colIdx) {
+                    i++;
+                }
+                content = accumulators[i].result();
+            }
+            row.col().width(colSizes[colIdx]).content(content == null ? "" : content);
+        }
+        return row;
+    }
+}
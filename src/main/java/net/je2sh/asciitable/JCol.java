@@ -3,12 +3,12 @@ package net.je2sh.asciitable;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import net.je2sh.asciitable.style.JPadding;
 import net.je2sh.asciitable.style.JTheme;
-import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.text.WordUtils;
 
 
 
@@ -36,40 +36,174 @@ public class JCol {
     /**
      * Content held by this column. Will be converted to a String through {@link Object#toString()}
      */
+    @Getter(AccessLevel.NONE)
     private Object content;
 
+    /**
+     * String of the content, kept when the table memoizes content. {@code null} if not computed
+     * yet.
+     *
+     * @see JTable#memoizeContent(boolean)
+     */
+    @Getter(AccessLevel.NONE)
+    private String contentString;
+
     /**
      * Explicit padding of this column. If {@code null} it will default to {@link JRow#getPadding()}
      */
     private JPadding padding;
 
+    /**
+     * Maximum number of lines of this column. If {@code null} it will default to
+     * {@link JTable#getMaxLines()}
+     */
+    private Integer maxLines;
+
+    /**
+     * Maximum number of characters of the content to be rendered. If {@code null} it will
+     * default to {@link JTable#getMaxChars()}
+     */
+    private Integer maxChars;
+
     public JCol(JRow row) {
         this.row = row;
     }
 
     public JCol content(Object content) {
+        row.checkNotFrozen();
         this.content = content;
+        this.contentString = null;
         return this;
     }
 
+    /**
+     * Defers the content to {@literal content}, which is only evaluated when the column is laid
+     * out (rendered, measured for {@link AutoFit} or looked up in a {@link RowCache}). It is
+     * evaluated at most once and so is the String of its value, even across frozen copies of
+     * this column.
+     * <p>
+     * Useful for content which is costly to compute or convert to a String and may never be
+     * shown, e.g. on pages which are not rendered.
+     *
+     * @param content Supplier of the content. A {@code null} value is rendered empty
+     * @return This column
+     */
+    public JCol content(Supplier<?> content) {
+        return content((Object) new LazyContent(content));
+    }
+
+    /**
+     * @return The content of this column. Deferred content is evaluated if not done yet
+     * @see #content(Supplier)
+     */
+    public Object getContent() {
+        return content instanceof LazyContent ? ((LazyContent) content).get() : content;
+    }
+
+    /**
+     * @return The String rendered for the content of this column. Computed once for deferred
+     * content or when the table memoizes content, every time otherwise
+     * @see JTable#memoizeContent(boolean)
+     */
+    String contentString() {
+        String result = contentString;
+        if (result == null) {
+            result = String.valueOf(content);
+            if (row.getTable().isMemoizeContent()) {
+                contentString = result;
+            }
+        }
+        return result;
+    }
+
     public JCol width(int width) {
+        row.checkNotFrozen();
         this.width = width;
         return this;
     }
 
+    /**
+     * Same as {@link #width(int)} but also allows resetting the width to be assessed
+     * automatically, used by rows reused for many rows of data
+     *
+     * @param width Explicit width or {@code null}
+     */
+    void explicitWidth(Integer width) {
+        row.checkNotFrozen();
+        this.width = width;
+    }
+
     public JCol padding(JPadding padding) {
+        row.checkNotFrozen();
         this.padding = padding;
         return this;
     }
 
+    /**
+     * Limits the content to {@literal maxLines} lines, top and bottom padding excluded. Content
+     * left out is replaced by the table's {@link Truncation} marker.
+     *
+     * @param maxLines Maximum number of lines
+     * @return This column
+     */
+    public JCol maxLines(int maxLines) {
+        row.checkNotFrozen();
+        this.maxLines = maxLines;
+        return this;
+    }
+
+    /**
+     * Limits the content to its first {@literal maxChars} characters, escape sequences excluded.
+     * Content left out is replaced by the table's {@link Truncation} marker.
+     *
+     * @param maxChars Maximum number of characters
+     * @return This column
+     */
+    public JCol maxChars(int maxChars) {
+        row.checkNotFrozen();
+        this.maxChars = maxChars;
+        return this;
+    }
+
     public JPadding getPadding() {
         return Optional.ofNullable(padding).orElse(row.getPadding());
     }
 
+    /**
+     * @return Maximum number of lines of this column, {@link Integer#MAX_VALUE} if unlimited
+     */
+    int lineLimit() {
+        return Optional.ofNullable(maxLines).orElse(
+                Optional.ofNullable(row.getTable().getMaxLines()).orElse(Integer.MAX_VALUE));
+    }
+
+    /**
+     * @return Maximum number of characters of this column, {@link Integer#MAX_VALUE} if unlimited
+     */
+    int charLimit() {
+        return Optional.ofNullable(maxChars).orElse(
+                Optional.ofNullable(row.getTable().getMaxChars()).orElse(Integer.MAX_VALUE));
+    }
+
     public JRow done() {
         return row;
     }
 
+    /**
+     * @param row Row the copy belongs to
+     * @return A copy of this column, sharing its content
+     */
+    JCol copy(JRow row) {
+        JCol copy = new JCol(row);
+        copy.width = width;
+        copy.content = content;
+        copy.contentString = contentString;
+        copy.padding = padding;
+        copy.maxLines = maxLines;
+        copy.maxChars = maxChars;
+        return copy;
+    }
+
     /**
      * Same as {@link #render(JTheme, int, Integer)} where the height is unknown and therefore only
      * the lines required by this column will be generated.
@@ -96,74 +230,118 @@ public class JCol {
      * @param widthToUse  How wide should this column be
      * @param heightToUse How high should this column be
      * @return A list of lines representing
-     * @see #wrapLines(String, int)
+     * @see #wrapLines(String, ColumnFragments, LineWrapper, StringBuilder, List)
      */
     public List<String> render(JTheme theme, int widthToUse, Integer heightToUse) {
         List<String> colResult = new ArrayList<>();
+        render(theme, widthToUse, heightToUse, colResult);
+        return colResult;
+    }
 
-        if (getPadding().getTop() > 0) {
-            String topPadding = (theme.vertical != Character.MIN_VALUE ? theme.vertical : "") +
-                                StringUtils.repeat(getPadding().getTopCharacter(), widthToUse);
-            for (int i = 0; i < getPadding().getTop(); i++) {
-                colResult.add(topPadding);
-            }
-        }
+    /**
+     * Same as {@link #render(JTheme, int, Integer)} but appends the lines to the given list,
+     * allowing callers to reuse it between columns.
+     *
+     * @param theme       Theme to be used on this column
+     * @param widthToUse  How wide should this column be
+     * @param heightToUse How high should this column be
+     * @param colResult   List to which the lines are appended
+     * @see #render(JTheme, int, Integer)
+     */
+    void render(JTheme theme, int widthToUse, Integer heightToUse, List<String> colResult) {
+        render(ColumnFragments.of(theme, getPadding(), widthToUse), heightToUse, colResult);
+    }
+
+    /**
+     * Same as {@link #render(JTheme, int, Integer, List)} with the theme, padding and width
+     * given by precomputed fragments, which callers may reuse between rows.
+     *
+     * @param fragments   Fragments of the theme, padding and width of this column
+     * @param heightToUse How high should this column be
+     * @param colResult   List to which the lines are appended
+     */
+    void render(ColumnFragments fragments, Integer heightToUse, List<String> colResult) {
+        render(fragments, heightToUse, colResult,
+               new LineWrapper(row.getTable().getContentParser()), new StringBuilder());
+    }
+
+    /**
+     * Same as {@link #render(ColumnFragments, Integer, List)} wrapping the content with
+     * {@literal lineWrapper} and assembling each line in {@literal lineBuilder}, both of which
+     * callers may reuse between columns.
+     *
+     * @param fragments   Fragments of the theme, padding and width of this column
+     * @param heightToUse How high should this column be
+     * @param colResult   List to which the lines are appended
+     * @param lineWrapper Wrapper using the content parser of the table
+     * @param lineBuilder Scratch buffer, cleared before each line
+     */
+    void render(ColumnFragments fragments, Integer heightToUse, List<String> colResult,
+                LineWrapper lineWrapper, StringBuilder lineBuilder)
+    {
+        JPadding padding = fragments.padding;
 
-        for (String contentLine : wrapLines(content.toString(), widthToUse)) {
-            colResult.add((theme.vertical != Character.MIN_VALUE ? theme.vertical : "") +
-                          contentLine);
+        for (int i = 0; i < padding.getTop(); i++) {
+            colResult.add(fragments.topPaddingLine);
         }
 
-        if (getPadding().getBottom() > 0 || (heightToUse != null && heightToUse > 0)) {
-            int bottomHeight = Math.max(getPadding().getBottom(),
-                                        Optional.ofNullable(heightToUse).orElse(0));
-            String bottomPadding = (theme.vertical != Character.MIN_VALUE ? theme.vertical : "") +
-                                   StringUtils.repeat(getPadding().getBottomCharacter(),
-                                                      widthToUse);
+        wrapLines(contentString(), fragments, lineWrapper, lineBuilder, colResult);
+
+        if (padding.getBottom() > 0 || (heightToUse != null && heightToUse > 0)) {
+            int bottomHeight = Math.max(padding.getBottom(),
+                                        heightToUse == null ? 0 : heightToUse);
             for (int i = 0; i < bottomHeight; i++) {
-                colResult.add(bottomPadding);
+                colResult.add(fragments.bottomPaddingLine);
             }
         }
-
-        return colResult;
     }
 
     /**
-     * Wraps the content in such a way that {@literal widthToUse} is respected. Wrapping is done
-     * based on '{@literal \n}' therefore any explicit line breaks will also be respected.
+     * Pads lines previously produced by {@link #render(ColumnFragments, Integer, List)} (with an
+     * unknown height) so that the column becomes exactly {@literal heightToUse} lines high. This
+     * avoids rendering the column again once the height of the row is known.
      *
-     * @param rawContent Unwrapped content (may contain explicit '{@literal \n}'s)
-     * @param widthToUse Maximum width allowed
-     * @return A list of Strings representing the wrapped content
-     * @see WordUtils#wrap(String, int, String, boolean)
-     */
-    private List<String> wrapLines(String rawContent, int widthToUse) {
-        List<String> result = new ArrayList<>();
-        int rawContentLength = row.getTable().getContentParser().getLength(rawContent);
-        for (String explicitLine : WordUtils.wrap(rawContent,
-                                                  widthToUse - getPadding().getLeft() -
-                                                  getPadding().getRight() +
-                                                  (rawContent.length() - rawContentLength),
-                                                  "\n", true)
-                                            .split("\n")) {
-            String contentStr =
-                    StringUtils.repeat(getPadding().getLeftCharacter(), getPadding().getLeft()) +
-                    explicitLine +
-                    StringUtils.repeat(getPadding().getRightCharacter(), getPadding().getRight());
-            int contentLength = row.getTable().getContentParser().getLength(contentStr);
-            StringBuilder extraPadding = new StringBuilder();
-            if (getPadding().getRight() > 0) {
-                extraPadding.append(StringUtils.repeat(getPadding().getRightCharacter(),
-                                                       widthToUse - contentLength));
-            }
-            else {
-                extraPadding.append(StringUtils.repeat(' ',
-                                                       widthToUse - contentLength));
-            }
-            result.add(contentStr + extraPadding.toString());
+     * @param fragments   Fragments of the theme, padding and width of this column
+     * @param heightToUse How high should this column be
+     * @param colResult   Lines of this column, to which the padding is appended
+     */
+    void fill(ColumnFragments fragments, int heightToUse, List<String> colResult) {
+        while (colResult.size() < heightToUse) {
+            colResult.add(fragments.bottomPaddingLine);
         }
+    }
 
-        return result;
+    /**
+     * Wraps the content in such a way that the width of the column is respected. Wrapping is
+     * done based on '{@literal \n}' therefore any explicit line breaks will also be respected.
+     *
+     * @param rawContent  Unwrapped content (may contain explicit '{@literal \n}'s)
+     * @param fragments   Fragments of the theme, padding and width of this column
+     * @param lineWrapper Wrapper using the content parser of the table
+     * @param lineBuilder Scratch buffer in which each line is assembled
+     * @param result      List to which the wrapped content lines are appended
+     * @see LineWrapper
+     */
+    private void wrapLines(String rawContent, ColumnFragments fragments, LineWrapper lineWrapper,
+                           StringBuilder lineBuilder, List<String> result)
+    {
+        JPadding padding = fragments.padding;
+        int widthToUse = fragments.width;
+        int contentWidth = widthToUse - padding.getLeft() - padding.getRight();
+
+        JTable table = row.getTable();
+        lineWrapper.wrap(
+                rawContent, contentWidth, lineLimit(), charLimit(), table.getTruncation(),
+                (line, visibleLength) -> {
+                    lineBuilder.setLength(0);
+                    lineBuilder.append(fragments.verticalLine).append(fragments.leftPadding)
+                               .append(line).append(fragments.rightPadding);
+                    int used = padding.getLeft() + visibleLength + padding.getRight();
+                    if (used < widthToUse) {
+                        lineBuilder.append(fragments.fill, 0, widthToUse - used);
+                    }
+                    result.add(lineBuilder.toString());
+                });
     }
 
 }
@@ -0,0 +1,286 @@
+package net.je2sh.asciitable;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+
+
+/**
+ * Table optimized for bulk loading many rows with the same columns, e.g. the result of a query.
+ * <p>
+ * Cells are kept in one compact array per column instead of a {@link JRow} and a {@link JCol} per
+ * cell. When rendering, a single row with one column per header is reused for every row of data,
+ * so the number of objects does not grow with the number of rows. Each render (or stream of
+ * lines) reuses its own row, therefore a table may be rendered by several threads at once, or
+ * through interleaved streams, as long as no rows are added meanwhile.
+ * <p>
+ * Width, theme, content parser and auto fit are taken from the given {@link JTable}, whose own
+ * rows are ignored.
+ * <pre>{@code
+ * JColumnarTable.of(JTable.of().width(80), "Id", "Name")
+ *               .add(1, "Alice")
+ *               .add(2, "Bob")
+ *               .render();
+ * }</pre>
+ *
+ * @see JTable
+ */
+public class JColumnarTable {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Table providing the configuration
+     */
+    private final JTable table;
+
+    private final JRow header;
+
+    /**
+     * Explicit width of each column, {@code null} if none
+     */
+    private final Integer[] widths;
+
+    private final Object[][] columns;
+    private int size;
+
+    private JColumnarTable(JTable table, Object[] headers) {
+        if (headers.length == 0) {
+            throw new IllegalArgumentException("At least one column is required");
+        }
+        this.table = table;
+        this.header = new JRow(table).aggregated(false);
+        this.widths = new Integer[headers.length];
+        this.columns = new Object[headers.length][INITIAL_CAPACITY];
+        for (Object name : headers) {
+            header.col().content(name == null ? "" : name);
+        }
+    }
+
+    /**
+     * @param table   Table providing width, theme, content parser and auto fit
+     * @param headers Content of the header row, one per column
+     * @return An empty columnar table
+     */
+    public static JColumnarTable of(JTable table, Object... headers) {
+        return new JColumnarTable(table, headers);
+    }
+
+    /**
+     * Creates a table with a column per column of {@literal resultSet}, headed by their labels,
+     * and loads all of its remaining rows.
+     *
+     * @param table     Table providing width, theme, content parser and auto fit
+     * @param resultSet Rows to be loaded. It is consumed but not closed
+     * @return A columnar table holding the rows of {@literal resultSet}
+     * @throws SQLException if {@literal resultSet} fails to be read
+     */
+    public static JColumnarTable of(JTable table, ResultSet resultSet) throws SQLException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        Object[] headers = new Object[metaData.getColumnCount()];
+        for (int i = 0; i < headers.length; i++) {
+            headers[i] = metaData.getColumnLabel(i + 1);
+        }
+        return of(table, headers).addAll(resultSet);
+    }
+
+    /**
+     * Sets the explicit width of a column, for every row.
+     *
+     * @param colIdx Index of the column
+     * @param width  Width of the column
+     * @return This table
+     * @see JCol#width(int)
+     */
+    public JColumnarTable width(int colIdx, int width) {
+        header.getCols().get(colIdx).width(width);
+        widths[colIdx] = width;
+        return this;
+    }
+
+    /**
+     * Appends a row.
+     *
+     * @param cells Content of each column. {@code null} cells are rendered empty
+     * @return This table
+     * @throws IllegalArgumentException if the number of cells does not match the number of columns
+     */
+    public JColumnarTable add(Object... cells) {
+        if (cells.length != columns.length) {
+            throw new IllegalArgumentException("Row size does not match the number of columns. " +
+                                               "Expected " + columns.length + " but got " +
+                                               cells.length);
+        }
+        ensureCapacity(size + 1);
+        for (int colIdx = 0; colIdx < columns.length; colIdx++) {
+            columns[colIdx][size] = cells[colIdx];
+        }
+        size++;
+        return this;
+    }
+
+    /**
+     * Appends all the given rows.
+     *
+     * @param rows Rows to be appended, each one with the content of each column
+     * @return This table
+     * @see #add(Object...)
+     */
+    public JColumnarTable addAll(Iterable<Object[]> rows) {
+        for (Object[] row : rows) {
+            add(row);
+        }
+        return this;
+    }
+
+    /**
+     * Appends the remaining rows of {@literal resultSet}.
+     *
+     * @param resultSet Rows to be appended. It is consumed but not closed
+     * @return This table
+     * @throws SQLException if {@literal resultSet} fails to be read
+     * @throws IllegalArgumentException if the number of columns of {@literal resultSet} does not
+     *                                  match the number of columns of this table
+     */
+    public JColumnarTable addAll(ResultSet resultSet) throws SQLException {
+        int colCount = resultSet.getMetaData().getColumnCount();
+        if (colCount != columns.length) {
+            throw new IllegalArgumentException("Row size does not match the number of columns. " +
+                                               "Expected " + columns.length + " but got " +
+                                               colCount);
+        }
+        while (resultSet.next()) {
+            ensureCapacity(size + 1);
+            for (int colIdx = 0; colIdx < colCount; colIdx++) {
+                columns[colIdx][size] = resultSet.getObject(colIdx + 1);
+            }
+            size++;
+        }
+        return this;
+    }
+
+    /**
+     * @return Number of rows, header excluded
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param rowIdx Index of the row, header excluded
+     * @param colIdx Index of the column
+     * @return Content of the cell
+     */
+    public Object get(int rowIdx, int colIdx) {
+        if (rowIdx < 0 || rowIdx >= size) {
+            throw new IndexOutOfBoundsException("Row " + rowIdx + " out of " + size);
+        }
+        return columns[colIdx][rowIdx];
+    }
+
+    /**
+     * Renders the header followed by all the rows.
+     *
+     * @return A list of lines representing the table
+     * @see JTable#render()
+     */
+    public List<String> render() {
+        List<String> result = new ArrayList<>();
+        renderer().render(result::add);
+        return result;
+    }
+
+    /**
+     * Same as {@link #render()} but writes each line to {@literal out} as soon as it is rendered.
+     *
+     * @param out Destination of the lines
+     * @see JTable#render(Appendable)
+     */
+    public void render(Appendable out) {
+        renderer().render(TableRenderer.appendingTo(out));
+    }
+
+    /**
+     * Renders lazily, a row at a time, as the lines are consumed.
+     *
+     * @return A sequential stream of the lines representing the table
+     * @see JTable#lines()
+     */
+    public Stream<String> lines() {
+        Iterator<String> lines = renderer().lineIterator();
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(lines,
+                                                    Spliterator.ORDERED | Spliterator.NONNULL),
+                false);
+    }
+
+    /**
+     * Renders the table page by page, with the header repeated on every page.
+     *
+     * @return A pagination of this table's rows
+     * @see JTable#paginate()
+     */
+    public Pagination paginate() {
+        return new Pagination(table, new RowView(), header);
+    }
+
+    private TableRenderer renderer() {
+        return new TableRenderer(table, new RowView());
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > columns[0].length) {
+            int newCapacity = Math.max(capacity, columns[0].length * 2);
+            for (int colIdx = 0; colIdx < columns.length; colIdx++) {
+                columns[colIdx] = Arrays.copyOf(columns[colIdx], newCapacity);
+            }
+        }
+    }
+
+    /**
+     * The header followed by the rows, all but the header backed by a row owned by the view. A
+     * row is only valid until the next one is retrieved from the same view.
+     */
+    private class RowView extends AbstractList<JRow> {
+
+        /**
+         * Row reused for every row of data
+         */
+        private final JRow flyweight = new JRow(table);
+
+        private RowView() {
+            for (Integer width : widths) {
+                flyweight.col().explicitWidth(width);
+            }
+        }
+
+        @Override
+        public JRow get(int index) {
+            if (index == 0) {
+                return header;
+            }
+            int rowIdx = index - 1;
+            List<JCol> cols = flyweight.getCols();
+            for (int colIdx = 0; colIdx < columns.length; colIdx++) {
+                Object content = columns[colIdx][rowIdx];
+                cols.get(colIdx).content(content == null ? "" : content);
+            }
+            return flyweight;
+        }
+
+        @Override
+        public int size() {
+            return size + 1;
+        }
+    }
+}
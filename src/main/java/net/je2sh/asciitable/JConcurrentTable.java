@@ -0,0 +1,144 @@
+package net.je2sh.asciitable;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.RandomAccess;
+
+
+
+/**
+ * Table to which rows are appended while other threads render it, without locking the readers.
+ * <p>
+ * Rows are frozen as they are appended and stored in fixed size segments which are never
+ * modified afterwards, only new segments are added. {@link #snapshot()} therefore only captures
+ * the current number of rows: it copies nothing, shares the rows with every other snapshot and
+ * never changes, no matter how many rows are appended later.
+ * <p>
+ * Appends are serialized between producers, snapshots never wait for them. Width, theme, content
+ * parser, auto fit and limits are taken from the given {@link JTable} when created, whose own
+ * rows are ignored.
+ * <pre>{@code
+ * JConcurrentTable live = JConcurrentTable.of(JTable.of().width(80));
+ * live.add("GET /", 200);                        // producer thread
+ * live.snapshot().render(response.getWriter());  // any request thread
+ * }</pre>
+ *
+ * @see JTable#freeze()
+ */
+public class JConcurrentTable {
+
+    private static final int SEGMENT_SHIFT = 10;
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+    private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    /**
+     * Frozen table without rows providing the configuration of every snapshot
+     */
+    private final JTable config;
+
+    /**
+     * Segments of rows. Only grows, a larger array keeping the same segments replaces it.
+     */
+    private volatile JRow[][] segments = new JRow[1][];
+
+    /**
+     * Number of rows. Written after the row it accounts for, publishing it to the snapshots.
+     */
+    private volatile int size;
+
+    private JConcurrentTable(JTable table) {
+        this.config = table.frozenWith(Collections.emptyList());
+    }
+
+    /**
+     * @param table Table providing width, theme, content parser, auto fit and limits
+     * @return An empty concurrent table
+     */
+    public static JConcurrentTable of(JTable table) {
+        return new JConcurrentTable(table);
+    }
+
+    /**
+     * Appends a row with a column per cell.
+     *
+     * @param cells Content of each column. {@code null} cells are rendered empty
+     * @return This table
+     */
+    public JConcurrentTable add(Object... cells) {
+        JRow row = new JRow(config);
+        for (Object cell : cells) {
+            row.col().content(cell == null ? "" : cell);
+        }
+        return add(row);
+    }
+
+    /**
+     * Appends a frozen copy of {@literal row}. The row can be modified or reused afterwards
+     * without affecting this table.
+     *
+     * @param row Row to be appended, e.g. {@code new JRow(table).col().content(1).done()}
+     * @return This table
+     */
+    public synchronized JConcurrentTable add(JRow row) {
+        JRow frozen = row.freeze(config);
+        int segmentIdx = size >>> SEGMENT_SHIFT;
+        JRow[][] current = segments;
+        if (segmentIdx == current.length) {
+            current = Arrays.copyOf(current, current.length * 2);
+            segments = current;
+        }
+        if (current[segmentIdx] == null) {
+            current[segmentIdx] = new JRow[SEGMENT_SIZE];
+        }
+        current[segmentIdx][size & SEGMENT_MASK] = frozen;
+        size = size + 1;
+        return this;
+    }
+
+    /**
+     * @return Number of rows appended so far
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Captures the rows appended so far, in constant time.
+     *
+     * @return A frozen table holding the rows appended so far
+     * @see JTable#freeze()
+     */
+    public JTable snapshot() {
+        // Size first, the segments read afterwards hold at least as many rows
+        int snapshotSize = size;
+        return config.frozenWith(new RowView(segments, snapshotSize));
+    }
+
+    /**
+     * The first {@literal size} rows of the given segments
+     */
+    private static final class RowView extends AbstractList<JRow> implements RandomAccess {
+
+        private final JRow[][] segments;
+        private final int size;
+
+        private RowView(JRow[][] segments, int size) {
+            this.segments = segments;
+            this.size = size;
+        }
+
+        @Override
+        public JRow get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Row " + index + " out of " + size);
+            }
+            return segments[index >>> SEGMENT_SHIFT][index & SEGMENT_MASK];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
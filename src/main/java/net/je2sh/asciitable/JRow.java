@@ -1,9 +1,11 @@
 package net.je2sh.asciitable;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import net.je2sh.asciitable.style.JPadding;
@@ -36,21 +38,64 @@ public class JRow {
      */
     private JPadding padding;
 
+    /**
+     * Whether the values of this row are added to the aggregations of the footer. Rows such as
+     * headers, whose content may look numeric (e.g. a year), should be excluded.
+     *
+     * @see JTable#footer(int, Aggregation)
+     */
+    private boolean aggregated = true;
+
+    /**
+     * Whether this row and its columns are immutable
+     *
+     * @see JTable#freeze()
+     */
+    @Setter(AccessLevel.NONE)
+    private boolean frozen;
+
     public JRow(JTable table) {
         this.table = table;
     }
 
     public JCol col() {
+        checkNotFrozen();
         JCol newcell = new JCol(this);
         cols.add(newcell);
         return newcell;
     }
 
     public JRow padding(JPadding padding) {
+        setPadding(padding);
+        return this;
+    }
+
+    public void setPadding(JPadding padding) {
+        checkNotFrozen();
         this.padding = padding;
+    }
+
+    /**
+     * @param aggregated Whether the values of this row are added to the aggregations of the
+     *                   footer, {@code true} by default
+     * @return This row
+     * @see JTable#footer(int, Aggregation)
+     */
+    public JRow aggregated(boolean aggregated) {
+        setAggregated(aggregated);
         return this;
     }
 
+    public void setAggregated(boolean aggregated) {
+        checkNotFrozen();
+        this.aggregated = aggregated;
+    }
+
+    public void setCols(List<JCol> cols) {
+        checkNotFrozen();
+        this.cols = cols;
+    }
+
     public JPadding getPadding() {
         return Optional.ofNullable(padding).orElse(table.getTheme().getPadding());
     }
@@ -58,4 +103,31 @@ public class JRow {
     public JTable done() {
         return table;
     }
+
+    /**
+     * @param table Frozen table the copy belongs to
+     * @return A frozen copy of this row and its columns, or this row if already frozen and
+     * belonging to {@literal table}
+     */
+    JRow freeze(JTable table) {
+        if (frozen && this.table == table) {
+            return this;
+        }
+        JRow copy = new JRow(table);
+        copy.padding = padding;
+        copy.aggregated = aggregated;
+        List<JCol> frozenCols = new ArrayList<>(cols.size());
+        for (JCol col : cols) {
+            frozenCols.add(col.copy(copy));
+        }
+        copy.cols = Collections.unmodifiableList(frozenCols);
+        copy.frozen = true;
+        return copy;
+    }
+
+    void checkNotFrozen() {
+        if (frozen) {
+            throw new UnsupportedOperationException("Frozen rows cannot be modified");
+        }
+    }
 }
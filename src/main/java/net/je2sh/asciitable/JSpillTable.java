@@ -0,0 +1,443 @@
+package net.je2sh.asciitable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+
+
+/**
+ * Table whose rows are spilled to a memory mapped file instead of being kept on the heap, so its
+ * size is limited by the disk rather than by the heap.
+ * <p>
+ * Rows are appended to the file in a compact binary encoding and rendered by streaming back
+ * through it, a single reused {@link JRow} standing for the row being rendered. Only the text and
+ * explicit width of each cell are kept, padding is the one of the table's theme.
+ * <p>
+ * Width, theme, content parser, auto fit and limits are taken from the given {@link JTable},
+ * whose own rows are ignored. Instances are not thread safe and must be closed to release the
+ * file.
+ * <pre>{@code
+ * try (JSpillTable table = JSpillTable.create(JTable.of().width(120))) {
+ *     for (Record record : records) {
+ *         table.add(record.id(), record.description());
+ *     }
+ *     table.render(System.out);
+ * }
+ * }</pre>
+ *
+ * @see JColumnarTable
+ */
+public class JSpillTable implements Closeable {
+
+    /**
+     * Size of each mapped segment of the file. Rows never span segments.
+     */
+    static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * A position is remembered every {@code 1 << CHECKPOINT_BITS} rows, rows in between are
+     * reached by skipping over the preceding ones
+     */
+    private static final int CHECKPOINT_BITS = 10;
+
+    private final JTable table;
+    private final Path file;
+    private final boolean deleteOnClose;
+    private final FileChannel channel;
+    private final int segmentSize;
+
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+
+    /**
+     * Offset of the end of the written data within each segment
+     */
+    private int[] segmentEnds = new int[4];
+
+    /**
+     * Position (segment index and offset) of every {@code 1 << CHECKPOINT_BITS}th row
+     */
+    private long[] checkpoints = new long[16];
+
+    private long fileOffset;
+    private int size;
+
+    /**
+     * Scratch buffer holding the encoding of the row being added
+     */
+    private ByteBuffer encoded = ByteBuffer.allocate(1024);
+
+    JSpillTable(JTable table, Path file, boolean deleteOnClose, int segmentSize) {
+        this.table = table;
+        this.file = file;
+        this.deleteOnClose = deleteOnClose;
+        this.segmentSize = segmentSize;
+        try {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                                            StandardOpenOption.TRUNCATE_EXISTING,
+                                            StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Creates a table spilled to a temporary file, deleted when the table is closed.
+     *
+     * @param table Table providing width, theme, content parser, auto fit and limits
+     * @return An empty spilled table
+     * @throws UncheckedIOException if the file cannot be created
+     */
+    public static JSpillTable create(JTable table) {
+        try {
+            return new JSpillTable(table, Files.createTempFile("asciitable", ".spill"), true,
+                                   DEFAULT_SEGMENT_SIZE);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Creates a table spilled to the given file, overwriting it. The file is kept when the table
+     * is closed, however its format is internal and not meant to be read back.
+     *
+     * @param table Table providing width, theme, content parser, auto fit and limits
+     * @param file  File the rows are spilled to
+     * @return An empty spilled table
+     * @throws UncheckedIOException if the file cannot be opened
+     */
+    public static JSpillTable create(JTable table, Path file) {
+        return new JSpillTable(table, file, false, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Appends a row whose columns evenly split the width of the table.
+     *
+     * @param cells Content of each column. {@code null} cells are rendered empty
+     * @return This table
+     */
+    public JSpillTable add(Object... cells) {
+        encoded.clear();
+        putVarInt(cells.length);
+        for (Object cell : cells) {
+            putCell(null, cell);
+        }
+        append();
+        return this;
+    }
+
+    /**
+     * Appends a copy of the given row: the content (as text) and explicit width of its columns.
+     *
+     * @param row Row to be appended, usually not added to any table
+     * @return This table
+     */
+    public JSpillTable add(JRow row) {
+        encoded.clear();
+        putVarInt(row.getCols().size());
+        for (JCol col : row.getCols()) {
+            putCell(col.getWidth(), col.getContent());
+        }
+        append();
+        return this;
+    }
+
+    /**
+     * @return Number of rows
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return A list of lines representing the table. Mind the heap when rendering large tables
+     * this way, {@link #render(Appendable)} and {@link #lines()} do not hold the lines.
+     * @see JTable#render()
+     */
+    public List<String> render() {
+        List<String> result = new ArrayList<>();
+        renderer().render(result::add);
+        return result;
+    }
+
+    /**
+     * Writes each line to {@literal out} as soon as it is rendered, holding a single row on the
+     * heap at a time.
+     *
+     * @param out Destination of the lines
+     * @see JTable#render(Appendable)
+     */
+    public void render(Appendable out) {
+        renderer().render(TableRenderer.appendingTo(out));
+    }
+
+    /**
+     * @return A lazy, sequential stream of the lines representing the table
+     * @see JTable#lines()
+     */
+    public Stream<String> lines() {
+        Iterator<String> lines = renderer().lineIterator();
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(lines,
+                                                    Spliterator.ORDERED | Spliterator.NONNULL),
+                false);
+    }
+
+    /**
+     * @return A pagination of the rows, reading only the rows of the requested pages
+     * @see JTable#paginate()
+     */
+    public Pagination paginate() {
+        return new Pagination(table, new RowView(), null);
+    }
+
+    /**
+     * Closes the file, deleting it if temporary. The mapped memory is released once the
+     * segments are garbage collected.
+     */
+    @Override
+    public void close() {
+        segments.clear();
+        try {
+            channel.close();
+            if (deleteOnClose) {
+                Files.deleteIfExists(file);
+            }
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private TableRenderer renderer() {
+        return new TableRenderer(table, new RowView());
+    }
+
+    private void putCell(Integer width, Object content) {
+        byte[] bytes = content == null ? new byte[0] :
+                       content.toString().getBytes(StandardCharsets.UTF_8);
+        // 0 stands for a width to be assessed automatically
+        putVarInt(width == null ? 0 : width + 1);
+        putVarInt(bytes.length);
+        ensureEncodedCapacity(bytes.length);
+        encoded.put(bytes);
+    }
+
+    private void putVarInt(int value) {
+        ensureEncodedCapacity(5);
+        int remaining = value;
+        while ((remaining & ~0x7F) != 0) {
+            encoded.put((byte) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+        encoded.put((byte) remaining);
+    }
+
+    private void ensureEncodedCapacity(int extra) {
+        if (encoded.remaining() < extra) {
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(encoded.capacity() * 2,
+                                                            encoded.position() + extra));
+            encoded.flip();
+            grown.put(encoded);
+            encoded = grown;
+        }
+    }
+
+    /**
+     * Copies the encoded row at the end of the file, mapping a new segment if needed
+     */
+    private void append() {
+        encoded.flip();
+        int rowLength = encoded.remaining();
+        int segmentIdx = segments.size() - 1;
+        if (segmentIdx < 0 || segments.get(segmentIdx).remaining() < rowLength) {
+            segmentIdx = mapSegment(rowLength);
+        }
+
+        MappedByteBuffer segment = segments.get(segmentIdx);
+        if ((size & ((1 << CHECKPOINT_BITS) - 1)) == 0) {
+            int checkpointIdx = size >>> CHECKPOINT_BITS;
+            if (checkpointIdx == checkpoints.length) {
+                checkpoints = Arrays.copyOf(checkpoints, checkpoints.length * 2);
+            }
+            checkpoints[checkpointIdx] = position(segmentIdx, segment.position());
+        }
+        segment.put(encoded);
+        segmentEnds[segmentIdx] = segment.position();
+        size++;
+    }
+
+    private int mapSegment(int minSize) {
+        int length = Math.max(segmentSize, minSize);
+        try {
+            segments.add(channel.map(FileChannel.MapMode.READ_WRITE, fileOffset, length));
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        fileOffset += length;
+        if (segments.size() > segmentEnds.length) {
+            segmentEnds = Arrays.copyOf(segmentEnds, segmentEnds.length * 2);
+        }
+        return segments.size() - 1;
+    }
+
+    private static long position(int segmentIdx, int offset) {
+        return ((long) segmentIdx << 32) | offset;
+    }
+
+    /**
+     * Decodes rows into a single reused {@link JRow}
+     */
+    private class RowReader {
+
+        private final JRow row = new JRow(table);
+        private final List<JCol> colPool = new ArrayList<>();
+        private byte[] bytes = new byte[256];
+
+        private int segmentIdx;
+        private ByteBuffer segment;
+
+        /**
+         * Moves right before the given row
+         */
+        void seek(int rowIdx) {
+            long checkpoint = checkpoints[rowIdx >>> CHECKPOINT_BITS];
+            segmentIdx = (int) (checkpoint >>> 32);
+            segment = segments.get(segmentIdx).duplicate();
+            segment.position((int) checkpoint);
+            for (int skipped = rowIdx & ((1 << CHECKPOINT_BITS) - 1); skipped > 0; skipped--) {
+                nextSegmentIfExhausted();
+                int colCount = getVarInt();
+                for (int colIdx = 0; colIdx < colCount; colIdx++) {
+                    getVarInt();
+                    int length = getVarInt();
+                    segment.position(segment.position() + length);
+                }
+            }
+        }
+
+        /**
+         * Decodes the next row
+         */
+        JRow next() {
+            nextSegmentIfExhausted();
+            int colCount = getVarInt();
+            while (colPool.size() < colCount) {
+                colPool.add(new JCol(row));
+            }
+            row.setCols(colPool.subList(0, colCount));
+
+            for (int colIdx = 0; colIdx < colCount; colIdx++) {
+                JCol col = colPool.get(colIdx);
+                int width = getVarInt();
+                col.explicitWidth(width == 0 ? null : width - 1);
+                int length = getVarInt();
+                if (bytes.length < length) {
+                    bytes = new byte[Math.max(length, bytes.length * 2)];
+                }
+                segment.get(bytes, 0, length);
+                col.content(new String(bytes, 0, length, StandardCharsets.UTF_8));
+            }
+            return row;
+        }
+
+        private void nextSegmentIfExhausted() {
+            if (segment.position() >= segmentEnds[segmentIdx]) {
+                segmentIdx++;
+                segment = segments.get(segmentIdx).duplicate();
+                segment.position(0);
+            }
+        }
+
+        private int getVarInt() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = segment.get();
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+    }
+
+    /**
+     * The rows of the table. Iterating streams through the file, random access reads from the
+     * closest checkpoint. A row is only valid until the next one is retrieved through the same
+     * iterator (or through {@link #get(int)}).
+     */
+    private class RowView extends AbstractList<JRow> {
+
+        private final RowReader reader = new RowReader();
+
+        /**
+         * Index of the last row read by {@literal reader}, consecutive rows need no seek
+         */
+        private int lastIndex = -1;
+
+        @Override
+        public JRow get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Row " + index + " out of " + size);
+            }
+            if (index != lastIndex + 1 || lastIndex < 0) {
+                reader.seek(index);
+            }
+            lastIndex = index;
+            return reader.next();
+        }
+
+        @Override
+        public Iterator<JRow> iterator() {
+            return new Iterator<JRow>() {
+
+                // Own reader so random accesses (e.g. by auto fit) do not move the iteration
+                private final RowReader iteration = new RowReader();
+                private int next = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return next < size;
+                }
+
+                @Override
+                public JRow next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    if (next == 0) {
+                        iteration.seek(0);
+                    }
+                    next++;
+                    return iteration.next();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -2,17 +2,26 @@ package net.je2sh.asciitable;
 
 import static net.je2sh.asciitable.style.JTheme.SINGLE_LINE;
 
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
-
-import lombok.Data;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import lombok.AccessLevel;
 import lombok.Getter;
 import net.je2sh.asciitable.style.Chars;
 import net.je2sh.asciitable.style.JTheme;
-import org.apache.commons.lang3.StringUtils;
 
 
 
@@ -46,124 +55,575 @@ public class JTable {
      */
     private ContentParser contentParser = new PlainContextParser();
 
+    /**
+     * Sizing of the columns without explicit width. If {@code null} they evenly split the
+     * available width.
+     */
+    private AutoFit autoFit;
+
+    /**
+     * Maximum number of lines of each column, unless set on the column. If {@code null} columns
+     * are as high as their content.
+     */
+    private Integer maxLines;
+
+    /**
+     * Maximum number of characters rendered of each column, unless set on the column. If
+     * {@code null} the whole content is rendered.
+     */
+    private Integer maxChars;
+
+    /**
+     * Marker ending columns whose content exceeds their limits
+     */
+    private Truncation truncation = Truncation.ELLIPSIS;
+
+    /**
+     * Cache of rendered rows. If {@code null} every row is rendered every time.
+     */
+    private RowCache rowCache;
+
+    /**
+     * Receives the statistics of each render. If {@code null} nothing is measured.
+     */
+    private RenderListener renderListener;
+
+    /**
+     * Whether columns keep the String of their content between renders
+     */
+    private boolean memoizeContent;
+
+    /**
+     * Content of the footer by column index, either an {@link Aggregation} or fixed content. No
+     * footer is rendered if empty.
+     */
+    @Getter(AccessLevel.PACKAGE)
+    private Map<Integer, Object> footers = new TreeMap<>();
+
+    /**
+     * Renderer used by {@link #renderAppended()}. Keeps track of the last emitted row.
+     */
+    @Getter(AccessLevel.NONE)
+    private final TableRenderer appendedRenderer = new TableRenderer(this);
+
+    /**
+     * Number of rows already emitted by {@link #renderAppended()}
+     */
+    @Getter(AccessLevel.NONE)
+    private int appendedRenderedRows = 0;
+
+    /**
+     * Borders already rendered, shared by every render of this table
+     */
+    @Getter(AccessLevel.PACKAGE)
+    private final BorderCache borderCache;
+
+    /**
+     * Whether this table is an immutable snapshot
+     *
+     * @see #freeze()
+     */
+    private final boolean frozen;
+
+    public JTable() {
+        this.borderCache = new BorderCache();
+        this.frozen = false;
+    }
+
+    /**
+     * Frozen copy of the configuration of {@literal source}, sharing its borders
+     */
+    private JTable(JTable source) {
+        this.width = source.width;
+        this.theme = source.theme;
+        this.contentParser = source.contentParser;
+        this.autoFit = source.autoFit;
+        this.maxLines = source.maxLines;
+        this.maxChars = source.maxChars;
+        this.truncation = source.truncation;
+        this.rowCache = source.rowCache;
+        this.renderListener = source.renderListener;
+        this.memoizeContent = source.memoizeContent;
+        this.footers = Collections.unmodifiableMap(new TreeMap<>(source.footers));
+        this.borderCache = source.borderCache;
+        this.frozen = true;
+    }
+
     public static JTable of() {
         return new JTable();
     }
 
+    /**
+     * Creates an immutable snapshot of this table: its configuration and a copy of each row and
+     * column. Modifying the snapshot throws {@link UnsupportedOperationException}, while this
+     * table remains modifiable and its changes do not affect the snapshot.
+     * <p>
+     * Snapshots can be rendered by many threads at once, provided the {@link ContentParser} is
+     * thread safe and the content of the columns is not modified. Content is shared with this
+     * table, not copied.
+     *
+     * @return A frozen copy of this table, or this table if already frozen
+     * @see JConcurrentTable
+     */
+    public JTable freeze() {
+        if (frozen) {
+            return this;
+        }
+        JTable snapshot = new JTable(this);
+        List<JRow> frozenRows = new ArrayList<>(rows.size());
+        for (JRow row : rows) {
+            frozenRows.add(row.freeze(snapshot));
+        }
+        snapshot.rows = Collections.unmodifiableList(frozenRows);
+        return snapshot;
+    }
+
+    /**
+     * @param frozenRows Rows of the snapshot, already frozen and never modified
+     * @return A frozen table with the configuration of this table and the given rows
+     */
+    JTable frozenWith(List<JRow> frozenRows) {
+        JTable snapshot = new JTable(this);
+        snapshot.rows = Collections.unmodifiableList(frozenRows);
+        return snapshot;
+    }
+
+    /**
+     * @param width   Width of the copy
+     * @param footers Footers of the copy, by column index
+     * @return A frozen table with the configuration of this table but the given width and
+     * footers, without rows. Rows are rendered by passing them to the renderer
+     */
+    JTable frozenWith(int width, Map<Integer, Object> footers) {
+        JTable snapshot = new JTable(this);
+        snapshot.width = width;
+        snapshot.footers = Collections.unmodifiableMap(new TreeMap<>(footers));
+        snapshot.rows = Collections.emptyList();
+        return snapshot;
+    }
+
     public JRow row() {
+        checkNotFrozen();
         JRow newRow = new JRow(this);
         rows.add(newRow);
         return newRow;
     }
 
     public JTable width(int width) {
+        checkNotFrozen();
         this.width = width;
         return this;
     }
 
     public JTable theme(JTheme theme) {
+        checkNotFrozen();
         this.theme = theme;
         return this;
     }
 
     public JTable contentParser(ContentParser contentParser) {
+        checkNotFrozen();
         this.contentParser = contentParser;
         return this;
     }
 
+    /**
+     * Sizes the columns without explicit width based on their content rather than evenly
+     * splitting the available width between them.
+     *
+     * @param autoFit How to measure the content, e.g. {@link AutoFit#firstRows(int)}. If
+     *                {@code null} the width is evenly split
+     * @return This table
+     */
+    public JTable autoFit(AutoFit autoFit) {
+        checkNotFrozen();
+        this.autoFit = autoFit;
+        return this;
+    }
+
+    /**
+     * Limits every column to {@literal maxLines} lines, unless limited otherwise through
+     * {@link JCol#maxLines(int)}. This bounds the height of rows with very long content.
+     *
+     * @param maxLines Maximum number of lines of each column
+     * @return This table
+     */
+    public JTable maxLines(int maxLines) {
+        checkNotFrozen();
+        this.maxLines = maxLines;
+        return this;
+    }
+
+    /**
+     * Limits every column to the first {@literal maxChars} characters of its content, unless
+     * limited otherwise through {@link JCol#maxChars(int)}.
+     *
+     * @param maxChars Maximum number of characters of each column
+     * @return This table
+     */
+    public JTable maxChars(int maxChars) {
+        checkNotFrozen();
+        this.maxChars = maxChars;
+        return this;
+    }
+
+    /**
+     * @param truncation Marker ending columns whose content exceeds their limits. Defaults to
+     *                   {@link Truncation#ELLIPSIS}
+     * @return This table
+     */
+    public JTable truncation(Truncation truncation) {
+        checkNotFrozen();
+        this.truncation = truncation;
+        return this;
+    }
+
+    /**
+     * Caches the rendered rows, so rows rendered again with the same content and layout are
+     * neither wrapped nor padded. Worth it for tables rendered repeatedly, e.g. on every refresh.
+     *
+     * @param rowCache Cache of rendered rows, e.g. {@link RowCache#lru(int)}. If {@code null}
+     *                 rows are always rendered
+     * @return This table
+     */
+    public JTable rowCache(RowCache rowCache) {
+        checkNotFrozen();
+        this.rowCache = rowCache;
+        return this;
+    }
+
+    /**
+     * Aggregates the numeric values of a column in a footer, rendered as a final row before the
+     * bottom border. Values are aggregated as the rows are rendered, without a separate pass
+     * over the table.
+     * <p>
+     * The footer is laid out as the last row, columns beyond those of the last row are left
+     * out. It is rendered by every render of the whole table and by {@link #renderClose()}, but
+     * not by {@link #paginate()}. Rows excluded with {@link JRow#aggregated(boolean)}, e.g. a
+     * header, are not aggregated.
+     *
+     * @param colIdx      Index of the column
+     * @param aggregation Aggregation rendered under the column, e.g. {@link Aggregation#sum()}
+     * @return This table
+     * @see #footer(int, Object)
+     */
+    public JTable footer(int colIdx, Aggregation aggregation) {
+        return footer(colIdx, (Object) aggregation);
+    }
+
+    /**
+     * Renders fixed content in the footer, e.g. a "Total" label.
+     *
+     * @param colIdx  Index of the column
+     * @param content Content of the footer cell, {@code null} to remove it
+     * @return This table
+     * @see #footer(int, Aggregation)
+     */
+    public JTable footer(int colIdx, Object content) {
+        checkNotFrozen();
+        if (colIdx < 0) {
+            throw new IllegalArgumentException("Column index must not be negative but got " +
+                                               colIdx);
+        }
+        if (content == null) {
+            footers.remove(colIdx);
+        }
+        else {
+            footers.put(colIdx, content);
+        }
+        return this;
+    }
+
+    /**
+     * Keeps the String of the content of each column once computed, instead of converting the
+     * content through {@link Object#toString()} on every render. Setting new content discards it,
+     * content modified in place is therefore not noticed.
+     *
+     * @param memoizeContent Whether columns keep the String of their content
+     * @return This table
+     * @see JCol#content(java.util.function.Supplier)
+     */
+    public JTable memoizeContent(boolean memoizeContent) {
+        checkNotFrozen();
+        this.memoizeContent = memoizeContent;
+        return this;
+    }
+
+    /**
+     * Reports the statistics of each render (rows, cells, lines, time spent laying out, wrapping
+     * and assembling borders, etc.) to {@literal renderListener}. Without listener nothing is
+     * measured.
+     *
+     * @param renderListener Listener receiving the statistics, e.g. a
+     *                       {@link RecordingRenderListener}. If {@code null} nothing is measured
+     * @return This table
+     */
+    public JTable renderListener(RenderListener renderListener) {
+        checkNotFrozen();
+        this.renderListener = renderListener;
+        return this;
+    }
+
+    /**
+     * Renders the whole table in memory.
+     *
+     * @return A list of strings, each entry representing a line of the table
+     * @see #render(Appendable)
+     */
     public List<String> render() {
         List<String> result = new ArrayList<>();
+        renderLines(result::add);
+        return result;
+    }
 
-        // Used to determine the bottom border intercept connectors
-        int[] colSizes = null;
+    /**
+     * Renders the table straight into {@literal out}, each line terminated by
+     * {@link System#lineSeparator()}.
+     * <p>
+     * Lines are written as soon as the row they belong to is laid out, therefore only one row is
+     * held in memory at any given time.
+     *
+     * @param out Destination of the rendered lines (e.g. a {@link java.io.Writer})
+     * @throws UncheckedIOException if {@literal out} fails to append
+     * @see #render()
+     */
+    public void render(Appendable out) {
+        renderLines(TableRenderer.appendingTo(out));
+    }
 
-        for (JRow row : rows) {
-            int[] previousColSizes = colSizes;
+    /**
+     * Same as {@link #render(Appendable)} but writes the table encoded as UTF-8, without building
+     * a String per line. Borders and padding are encoded once and copied as bytes afterwards.
+     * <p>
+     * Bytes are written in large blocks, the stream is neither flushed nor closed.
+     *
+     * @param out Destination of the encoded lines
+     * @throws UncheckedIOException if {@literal out} fails to be written
+     * @see #renderUtf8(ByteBuffer)
+     */
+    public void renderUtf8(OutputStream out) {
+        renderUtf8(Utf8LineWriter.to(out));
+    }
 
-            // If the table width is not evenly distributable between the columns, the leftover
-            // will be applied to the first column
-            colSizes = colSizes(width, row.getCols());
+    /**
+     * Same as {@link #renderUtf8(OutputStream)} but writes into {@literal buffer}, starting at its
+     * position. The buffer can be cleared and reused for the next table.
+     *
+     * @param buffer Destination of the encoded lines
+     * @throws java.nio.BufferOverflowException if {@literal buffer} is too small to hold the
+     *                                          table, in which case it holds part of it
+     * @see #renderUtf8(OutputStream)
+     */
+    public void renderUtf8(ByteBuffer buffer) {
+        renderUtf8(Utf8LineWriter.to(buffer));
+    }
 
-            String topBorder = renderTopBorder(colSizes, previousColSizes, width, theme);
-            if (!topBorder.trim().isEmpty()) {
-                result.add(topBorder);
-            }
+    /**
+     * Writes the rows in the given format instead of drawing them with borders.
+     *
+     * @param format Format of the output, e.g. {@link TableFormat#csv()}
+     * @return A list of strings, each entry representing a line of the output
+     * @see #format(TableFormat, Appendable)
+     */
+    public List<String> format(TableFormat format) {
+        List<String> result = new ArrayList<>();
+        renderFormat(format, result::add);
+        return result;
+    }
 
-            // Each column rendered without borders
-            List<RenderedCol> colResult = new ArrayList<>();
-            int maxHeight = 0;
-
-            Iterator<JCol> colIter = row.getCols().iterator();
-
-            int colIdx = 0;
-            while (colIter.hasNext()) {
-                JCol col = colIter.next();
-                int widthToUse = colSizes[colIdx];
-                RenderedCol renderedCol = new RenderedCol(col, widthToUse,
-                                                          col.render(theme, widthToUse));
-                maxHeight = Math.max(maxHeight, renderedCol.getHeight());
-                colResult.add(renderedCol);
-                colIdx++;
-            }
+    /**
+     * Same as {@link #format(TableFormat)} but writes each line to {@literal out} as soon as its
+     * row is reached, each line terminated by {@link System#lineSeparator()}.
+     *
+     * @param format Format of the output, e.g. {@link TableFormat#csv()}
+     * @param out    Destination of the lines
+     */
+    public void format(TableFormat format, Appendable out) {
+        renderFormat(format, TableRenderer.appendingTo(out));
+    }
 
-            final int finalMaxHeight = maxHeight;
-            List<List<String>> colLines =
-                    colResult.stream()
-                             .map(cr -> cr.getCol().render(theme, cr.widthToUse, finalMaxHeight))
-                             .collect(Collectors.toList());
-
-            for (int rowNum = 0; rowNum < finalMaxHeight; rowNum++) {
-                StringBuilder rowBuilder = new StringBuilder();
-                for (List<String> colLine : colLines) {
-                    rowBuilder.append(colLine.get(rowNum));
-                }
-                safeAppend(rowBuilder, theme.vertical);
-                result.add(rowBuilder.toString());
-            }
+    /**
+     * Renders the table to fit the width of a terminal instead of its own width, dropping
+     * optional columns or writing the rows as records when the terminal is too narrow.
+     *
+     * @param layout Terminal width and the columns which may be dropped
+     * @return A list of strings, each entry representing a line of the table
+     * @see #render(AdaptiveLayout, Appendable)
+     */
+    public List<String> render(AdaptiveLayout layout) {
+        List<String> result = new ArrayList<>();
+        layout.render(this, result::add);
+        return result;
+    }
 
-        }
+    /**
+     * Same as {@link #render(AdaptiveLayout)} but writes each line to {@literal out} as soon as
+     * it is rendered, each line terminated by {@link System#lineSeparator()}.
+     *
+     * @param layout Terminal width and the columns which may be dropped
+     * @param out    Destination of the lines
+     */
+    public void render(AdaptiveLayout layout, Appendable out) {
+        layout.render(this, TableRenderer.appendingTo(out));
+    }
 
-        String bottomBorder = renderBottomBorder(colSizes, theme);
-        if (!bottomBorder.trim().isEmpty()) {
-            result.add(bottomBorder);
+    private void renderFormat(TableFormat format, Consumer<String> lineConsumer) {
+        TableFormat.RowWriter writer = format.writer(this);
+        for (JRow row : rows) {
+            writer.write(row, lineConsumer);
         }
+        writer.end(lineConsumer);
+    }
+
+    /**
+     * Same as {@link #render()} but wraps and pads the rows concurrently on the given executor
+     * (e.g. a {@link java.util.concurrent.ForkJoinPool}). The output is identical to the
+     * sequential render.
+     * <p>
+     * The configured {@link ContentParser} must be thread safe and the table must not be
+     * modified while rendering.
+     *
+     * @param executor Executor on which the rows are rendered
+     * @return A list of strings, each entry representing a line of the table
+     * @see #render(Executor, int)
+     */
+    public List<String> render(Executor executor) {
+        return render(executor, ParallelTableRenderer.DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Same as {@link #render(Executor)} where each task renders {@literal rowsPerTask}
+     * consecutive rows.
+     *
+     * @param executor    Executor on which the rows are rendered
+     * @param rowsPerTask How many rows are rendered by each task submitted to {@literal executor}
+     * @return A list of strings, each entry representing a line of the table
+     * @see #render(Executor)
+     */
+    public List<String> render(Executor executor, int rowsPerTask) {
+        return new ParallelTableRenderer(this, executor, rowsPerTask).render();
+    }
+
+    /**
+     * Lazily renders the table. Each row is only laid out when the iterator reaches it, making
+     * it cheap to consume only the first lines of a large table.
+     * <p>
+     * Rows must not be added to the table while iterating.
+     *
+     * @return An iterator over the lines of the table
+     * @see #lines()
+     */
+    public Iterator<String> lineIterator() {
+        return new TableRenderer(this).lineIterator();
+    }
+
+    /**
+     * Same as {@link #lineIterator()} but exposed as a sequential {@link Stream}, e.g.
+     * {@code table.lines().limit(10)} only lays out the rows required to produce 10 lines.
+     *
+     * @return A lazily evaluated stream of the lines of the table
+     * @see #lineIterator()
+     */
+    public Stream<String> lines() {
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(lineIterator(),
+                                                    Spliterator.ORDERED | Spliterator.NONNULL),
+                false);
+    }
+
+    /**
+     * Renders only the rows added since the previous call to this method (or since the last
+     * {@link #renderClose()}), connecting them to the last row already emitted. The bottom border
+     * is not rendered until {@link #renderClose()} is invoked.
+     * <p>
+     * This allows a table to be printed as it grows (e.g. when tailing live output) without
+     * re-rendering rows which were already emitted.
+     *
+     * @return A list of strings representing the newly rendered lines
+     * @throws UnsupportedOperationException if this table is frozen
+     * @see #renderClose()
+     */
+    public List<String> renderAppended() {
+        List<String> result = new ArrayList<>();
+        renderAppended(result::add);
         return result;
     }
 
-    private int[] colSizes(int tableWidth, List<JCol> cols) {
-        int[] result = new int[cols.size()];
-        int remainingWidth = tableWidth;
-        List<Integer> dynamicCols = new ArrayList<>();
+    /**
+     * Same as {@link #renderAppended()} but writes the lines straight into {@literal out}.
+     *
+     * @param out Destination of the rendered lines
+     * @see #renderAppended()
+     */
+    public void renderAppended(Appendable out) {
+        renderAppended(TableRenderer.appendingTo(out));
+    }
 
-        for (int i = 0; i < cols.size(); i++) {
-            JCol col = cols.get(i);
-            if (col.getWidth() == null) {
-                dynamicCols.add(i);
-            }
-            else {
-                result[i] = col.getWidth();
-                remainingWidth -= col.getWidth();
-            }
-        }
+    /**
+     * Closes a table rendered through {@link #renderAppended()} by emitting the bottom border of
+     * the last emitted row. Rows added afterwards will start a new table.
+     *
+     * @return The bottom border, or an empty list if no row was emitted or the theme has no
+     * bottom border
+     * @see #renderAppended()
+     */
+    public List<String> renderClose() {
+        List<String> result = new ArrayList<>();
+        renderClose(result::add);
+        return result;
+    }
 
-        if (!dynamicCols.isEmpty()) {
-            int leftoverWidth = remainingWidth % dynamicCols.size();
-            int colWidth = remainingWidth / dynamicCols.size();
+    /**
+     * Same as {@link #renderClose()} but writes the bottom border straight into {@literal out}.
+     *
+     * @param out Destination of the rendered lines
+     * @see #renderClose()
+     */
+    public void renderClose(Appendable out) {
+        renderClose(TableRenderer.appendingTo(out));
+    }
 
-            for (Integer dynamicIndex : dynamicCols) {
-                result[dynamicIndex] = colWidth;
-            }
-            if (leftoverWidth > 0) {
-                result[result.length - 1] = result[result.length - 1] + leftoverWidth;
-            }
+    /**
+     * Renders the table page by page, only rendering the rows of the requested pages. Rows per
+     * page or lines per page must be set on the returned pagination before rendering.
+     *
+     * @return A pagination of this table's rows
+     * @see Pagination
+     */
+    public Pagination paginate() {
+        return new Pagination(this, rows, null);
+    }
+
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new UnsupportedOperationException("Frozen tables cannot be modified");
         }
-        int rowWidth = Arrays.stream(result).sum();
-        if (rowWidth != tableWidth) {
-            throw new IllegalArgumentException("Row width does not match table width. " +
-                                               "Expected " + tableWidth + " but got " + rowWidth);
+    }
+
+    private void renderLines(Consumer<String> lineConsumer) {
+        new TableRenderer(this).render(lineConsumer);
+    }
+
+    private void renderUtf8(Utf8LineWriter writer) {
+        new TableRenderer(this).render(writer);
+        writer.flush();
+    }
+
+    private void renderAppended(Consumer<String> lineConsumer) {
+        checkNotFrozen();
+        while (appendedRenderedRows < rows.size()) {
+            JRow row = rows.get(appendedRenderedRows);
+            appendedRenderer.accumulate(row);
+            appendedRenderer.renderRow(row, lineConsumer);
+            appendedRenderedRows++;
         }
+        appendedRenderer.report();
+    }
 
-        return result;
+    private void renderClose(Consumer<String> lineConsumer) {
+        checkNotFrozen();
+        appendedRenderer.renderEnd(lineConsumer);
+        appendedRenderer.report();
     }
 
     public static String renderBottomBorder(int[] colsWidth, Chars theme) {
@@ -182,60 +642,78 @@ public class JTable {
         return builder.toString();
     }
 
+    /**
+     * Renders the border on top of a row, connecting it to the previous row (if any).
+     * <p>
+     * The border is built position by position from the column boundaries of both rows, so
+     * themes whose characters repeat (e.g. the horizontal line is also used as intersection) are
+     * supported. A connecting character missing from the theme falls back to the one that would
+     * be used without a previous row.
+     *
+     * @param colsWidth         Width of each column of the row
+     * @param previousColsWidth Width of each column of the previous row, {@code null} if none
+     * @param tableWidth        Width of the table
+     * @param theme             Characters of the border
+     * @return The border, empty if the theme has no border characters
+     */
     public static String renderTopBorder(int[] colsWidth, int[] previousColsWidth, int tableWidth,
                                          Chars theme)
     {
-        StringBuilder builder = new StringBuilder();
-        for (int aColsWidth : colsWidth) {
-            if (builder.length() == 0) {
-                safeAppend(builder, theme.topLeft);
+        boolean[] boundaries = boundaries(colsWidth);
+        boolean[] previousBoundaries = previousColsWidth == null ? null :
+                                       boundaries(previousColsWidth);
+        StringBuilder builder = new StringBuilder(boundaries.length);
+
+        for (int position = 0; position < boundaries.length; position++) {
+            boolean below = previousBoundaries != null && position < previousBoundaries.length &&
+                            previousBoundaries[position];
+            char border;
+            if (position == 0) {
+                border = below ? connect(theme.leftIntersect, theme.topLeft) : theme.topLeft;
             }
-            else {
-                safeAppend(builder, theme.topIntersect);
+            else if (position == boundaries.length - 1) {
+                border = below ? connect(theme.rightIntersect, theme.topRight) : theme.topRight;
             }
-            safeAppend(builder, theme.horizontal, aColsWidth);
-        }
-        safeAppend(builder, theme.topRight);
-
-        if (previousColsWidth != null) {
-            safeInsert(builder, 0, theme.leftIntersect);
-            int prevIdx = 1;
-
-            for (int prevColWidth : previousColsWidth) {
-                prevIdx += prevColWidth;
-                if (prevIdx > builder.length()) {
-                    // noop
-                }
-                else if (builder.charAt(prevIdx) == theme.topIntersect) {
-                    safeInsert(builder, prevIdx, theme.intersect);
-                }
-                else if (builder.charAt(prevIdx) == theme.horizontal) {
-                    safeInsert(builder, prevIdx, theme.bottomIntersect);
-                }
-                else if (builder.charAt(prevIdx) == theme.topRight) {
-                    safeInsert(builder, prevIdx, theme.rightIntersect);
-                }
-                else {
-                    throw new IllegalArgumentException("Do not know how to replace '" +
-                                                       builder.charAt(prevIdx) + "'");
-                }
-                prevIdx++;
+            else if (boundaries[position]) {
+                border = below ? connect(theme.intersect, theme.topIntersect) : theme.topIntersect;
             }
-
+            else {
+                border = below ? connect(theme.bottomIntersect, theme.horizontal) :
+                         theme.horizontal;
+            }
+            safeAppend(builder, border);
         }
 
         return builder.toString();
     }
 
-    private static void safeInsert(StringBuilder builder, int idx, char character) {
-        if (character != Character.MIN_VALUE) {
-            builder.setCharAt(idx, character);
+    /**
+     * @return For each position of a border, whether a column starts or ends at it
+     */
+    private static boolean[] boundaries(int[] colsWidth) {
+        int length = colsWidth.length + 1;
+        for (int colWidth : colsWidth) {
+            length += colWidth;
+        }
+        boolean[] boundaries = new boolean[length];
+        int position = 0;
+        boundaries[position] = true;
+        for (int colWidth : colsWidth) {
+            position += colWidth + 1;
+            boundaries[position] = true;
         }
+        return boundaries;
+    }
+
+    private static char connect(char connected, char unconnected) {
+        return connected != Character.MIN_VALUE ? connected : unconnected;
     }
 
     private static void safeAppend(StringBuilder builder, char character, int repeat) {
         if (character != Character.MIN_VALUE) {
-            builder.append(StringUtils.repeat(character, repeat));
+            for (int i = 0; i < repeat; i++) {
+                builder.append(character);
+            }
         }
     }
 
@@ -243,15 +721,4 @@ public class JTable {
         safeAppend(builder, character, 1);
     }
 
-    @Data
-    private static class RenderedCol {
-        private final JCol col;
-        private final int widthToUse;
-        private final List<String> renderedCol;
-
-        public int getHeight() {
-            return renderedCol.size();
-        }
-    }
-
 }
@@ -0,0 +1,229 @@
+package net.je2sh.asciitable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+
+
+/**
+ * Table holding only the first {@literal limit} records of a stream in a given order, e.g. the
+ * 50 slowest requests out of millions.
+ * <p>
+ * Records are kept in a heap bounded by the limit: once full, a record only gets in by
+ * evicting the last one, so memory depends on the limit and not on the number of records. Records
+ * are only turned into rows when rendering, and only those which made it. Records comparing equal
+ * keep the order in which they were added.
+ * <p>
+ * Width, theme, content parser, auto fit and limits are taken from the given {@link JTable},
+ * whose own rows are ignored. Instances are not thread safe.
+ * <pre>{@code
+ * JTopTable<Request> slowest =
+ *         JTopTable.of(JTable.of().width(80), comparing(Request::getMillis).reversed(), 50,
+ *                      r -> new Object[]{r.getPath(), r.getMillis()})
+ *                  .header("Path", "Millis");
+ * requests.forEach(slowest::add);
+ * slowest.render().forEach(System.out::println);
+ * }</pre>
+ *
+ * @param <T> Type of the records
+ * @see JTable
+ */
+public class JTopTable<T> {
+
+    private final JTable table;
+    private final Comparator<? super T> order;
+    private final int limit;
+    private final Function<? super T, Object[]> cells;
+
+    /**
+     * Records kept so far, the last one in order on top so it can be evicted
+     */
+    private final PriorityQueue<Entry<T>> heap;
+
+    private Object[] header;
+    private long seen;
+
+    private JTopTable(JTable table, Comparator<? super T> order, int limit,
+                      Function<? super T, Object[]> cells)
+    {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive but got " + limit);
+        }
+        this.table = table;
+        this.order = order;
+        this.limit = limit;
+        this.cells = cells;
+        this.heap = new PriorityQueue<>(Math.min(limit, 1024), this::compareReversed);
+    }
+
+    /**
+     * @param table Table providing width, theme, content parser, auto fit and limits
+     * @param order Order of the records, the first ones are kept
+     * @param limit Maximum number of records kept
+     * @param cells Content of each column of a record
+     * @param <T>   Type of the records
+     * @return An empty table
+     */
+    public static <T> JTopTable<T> of(JTable table, Comparator<? super T> order, int limit,
+                                      Function<? super T, Object[]> cells)
+    {
+        return new JTopTable<>(table, order, limit, cells);
+    }
+
+    /**
+     * @param headers Content of the header row, rendered before the records. {@code null} cells
+     *                are rendered empty
+     * @return This table
+     */
+    public JTopTable<T> header(Object... headers) {
+        this.header = headers;
+        return this;
+    }
+
+    /**
+     * Offers a record, kept if it is among the first {@literal limit} records so far.
+     *
+     * @param record Record to be offered
+     * @return This table
+     */
+    public JTopTable<T> add(T record) {
+        seen++;
+        if (heap.size() < limit) {
+            heap.add(new Entry<>(record, seen));
+        }
+        else if (order.compare(record, heap.peek().record) < 0) {
+            // Equal records are not swapped, the earliest one stays
+            heap.poll();
+            heap.add(new Entry<>(record, seen));
+        }
+        return this;
+    }
+
+    /**
+     * @param records Records to be offered
+     * @return This table
+     * @see #add(Object)
+     */
+    public JTopTable<T> addAll(Iterable<? extends T> records) {
+        for (T record : records) {
+            add(record);
+        }
+        return this;
+    }
+
+    /**
+     * @return Number of records kept, at most the limit
+     */
+    public int size() {
+        return heap.size();
+    }
+
+    /**
+     * @return Number of records offered so far
+     */
+    public long seen() {
+        return seen;
+    }
+
+    /**
+     * @return The records kept, in order
+     */
+    public List<T> records() {
+        List<T> records = new ArrayList<>(heap.size());
+        for (Entry<T> entry : sorted()) {
+            records.add(entry.record);
+        }
+        return records;
+    }
+
+    /**
+     * Renders the header, if any, followed by the records kept, in order.
+     *
+     * @return A list of lines representing the table
+     * @see JTable#render()
+     */
+    public List<String> render() {
+        List<String> result = new ArrayList<>();
+        renderer().render(result::add);
+        return result;
+    }
+
+    /**
+     * Same as {@link #render()} but writes each line to {@literal out} as soon as it is rendered.
+     *
+     * @param out Destination of the lines
+     * @see JTable#render(Appendable)
+     */
+    public void render(Appendable out) {
+        renderer().render(TableRenderer.appendingTo(out));
+    }
+
+    /**
+     * @return A sequential stream of the lines representing the table, rendered lazily
+     * @see JTable#lines()
+     */
+    public Stream<String> lines() {
+        Iterator<String> lines = renderer().lineIterator();
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(lines,
+                                                    Spliterator.ORDERED | Spliterator.NONNULL),
+                false);
+    }
+
+    private TableRenderer renderer() {
+        List<Entry<T>> entries = sorted();
+        List<JRow> rows = new ArrayList<>(entries.size() + 1);
+        if (header != null) {
+            rows.add(row(header).aggregated(false));
+        }
+        for (Entry<T> entry : entries) {
+            rows.add(row(cells.apply(entry.record)));
+        }
+        return new TableRenderer(table, rows);
+    }
+
+    private JRow row(Object[] rowCells) {
+        JRow row = new JRow(table);
+        for (Object cell : rowCells) {
+            row.col().content(cell == null ? "" : cell);
+        }
+        return row;
+    }
+
+    private List<Entry<T>> sorted() {
+        List<Entry<T>> entries = new ArrayList<>(heap);
+        entries.sort((a, b) -> compareReversed(b, a));
+        return entries;
+    }
+
+    /**
+     * Reversed order of the records, ties broken by reversed arrival
+     */
+    private int compareReversed(Entry<T> a, Entry<T> b) {
+        int result = order.compare(b.record, a.record);
+        return result != 0 ? result : Long.compare(b.sequence, a.sequence);
+    }
+
+    private static final class Entry<T> {
+
+        private final T record;
+
+        /**
+         * Position of the record among all the records offered
+         */
+        private final long sequence;
+
+        private Entry(T record, long sequence) {
+            this.record = record;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package net.je2sh.asciitable;
+
+import java.util.function.Supplier;
+
+
+
+/**
+ * Content of a column given by a {@link Supplier}, evaluated the first time the content is
+ * needed and never again. Its String is computed once as well.
+ * <p>
+ * Instances are thread safe, so frozen tables sharing them can be rendered concurrently.
+ *
+ * @see JCol#content(Supplier)
+ */
+final class LazyContent {
+
+    /**
+     * {@code null} once evaluated
+     */
+    private Supplier<?> supplier;
+    private Object value;
+
+    private volatile String string;
+
+    LazyContent(Supplier<?> supplier) {
+        this.supplier = supplier;
+    }
+
+    /**
+     * @return The value of the supplier, evaluating it if not yet done. {@code null} values are
+     * replaced by an empty String
+     */
+    synchronized Object get() {
+        if (supplier != null) {
+            Object supplied = supplier.get();
+            value = supplied == null ? "" : supplied;
+            supplier = null;
+        }
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        String result = string;
+        if (result == null) {
+            synchronized (this) {
+                // Checked again, another thread may have computed it while this one waited
+                result = string;
+                if (result == null) {
+                    result = get().toString();
+                    string = result;
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,172 @@
+package net.je2sh.asciitable;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+
+
+/**
+ * Measures content per character for parsers which only implement
+ * {@link ContentParser#getLength(Object)}, as written before
+ * {@link ContentParser#escapeLength(CharSequence, int)} and {@link ContentParser#charWidth(int)}
+ * existed.
+ * <p>
+ * Content whose length is its number of characters has no invisible sequence. Otherwise each
+ * position is probed for the shortest sequence of at most {@value #MAX_ESCAPE_LENGTH} characters
+ * measured as 0 long, which is then considered invisible. Probing is done once per content and
+ * only the last content is remembered.
+ * <p>
+ * Calls to {@link ContentParser#getLength(Object)} may be timed, see {@link #takeNanos()}.
+ * <p>
+ * Instances are not thread safe.
+ */
+final class LengthContentParser implements ContentParser {
+
+    /**
+     * Longest invisible sequence looked for
+     */
+    static final int MAX_ESCAPE_LENGTH = 32;
+
+    /**
+     * Whether the parsers of a class measure per character, i.e. override
+     * {@link ContentParser#escapeLength(CharSequence, int)} or
+     * {@link ContentParser#charWidth(int)} in the class overriding
+     * {@link ContentParser#getLength(Object)} or in one of its subclasses. Proxies declare every
+     * method and are therefore assumed to only implement {@link ContentParser#getLength(Object)}
+     */
+    private static final ClassValue<Boolean> MEASURES_CHARACTERS = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            if (Proxy.isProxyClass(type)) {
+                return false;
+            }
+            try {
+                Class<?> getLength = type.getMethod("getLength", Object.class)
+                                         .getDeclaringClass();
+                Method escapeLength = type.getMethod("escapeLength", CharSequence.class,
+                                                     int.class);
+                Method charWidth = type.getMethod("charWidth", int.class);
+                return getLength.isAssignableFrom(escapeLength.getDeclaringClass()) ||
+                       getLength.isAssignableFrom(charWidth.getDeclaringClass());
+            }
+            catch (NoSuchMethodException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    };
+
+    private final ContentParser parser;
+
+    /**
+     * Whether calls to {@link ContentParser#getLength(Object)} are timed
+     */
+    private final boolean timed;
+    private long nanos;
+
+    /**
+     * Width of the ASCII characters, 0 if not measured yet
+     */
+    private final int[] asciiWidths = new int[128];
+
+    /**
+     * Last probed content and the length of the invisible sequence starting at each of its
+     * positions, {@code null} if it has none
+     */
+    private CharSequence lastContent;
+    private int[] escapeLengths;
+
+    private LengthContentParser(ContentParser parser, boolean timed) {
+        this.parser = parser;
+        this.timed = timed;
+    }
+
+    /**
+     * @param parser Parser of the table
+     * @return {@literal parser} if it measures per character, otherwise a new instance measuring
+     * through its {@link ContentParser#getLength(Object)}
+     */
+    static ContentParser measuring(ContentParser parser) {
+        return measuring(parser, false);
+    }
+
+    /**
+     * Same as {@link #measuring(ContentParser)} where the calls to
+     * {@link ContentParser#getLength(Object)} of a new instance are timed if {@literal timed}
+     */
+    static ContentParser measuring(ContentParser parser, boolean timed) {
+        if (parser instanceof LengthContentParser || MEASURES_CHARACTERS.get(parser.getClass())) {
+            return parser;
+        }
+        return new LengthContentParser(parser, timed);
+    }
+
+    /**
+     * @return Time spent in {@link ContentParser#getLength(Object)} since the previous call, 0 if
+     * not timed
+     */
+    long takeNanos() {
+        long result = nanos;
+        nanos = 0;
+        return result;
+    }
+
+    @Override
+    public int getLength(Object content) {
+        if (!timed) {
+            return parser.getLength(content);
+        }
+        long start = System.nanoTime();
+        int length = parser.getLength(content);
+        nanos += System.nanoTime() - start;
+        return length;
+    }
+
+    @Override
+    public int escapeLength(CharSequence content, int index) {
+        if (content != lastContent) {
+            lastContent = content;
+            escapeLengths = probe(content);
+        }
+        return escapeLengths == null ? 0 : escapeLengths[index];
+    }
+
+    @Override
+    public int charWidth(int codePoint) {
+        if (codePoint < asciiWidths.length) {
+            int width = asciiWidths[codePoint];
+            if (width == 0) {
+                // Stored off by one, 0 marks characters not measured yet
+                width = measure(codePoint) + 1;
+                asciiWidths[codePoint] = width;
+            }
+            return width - 1;
+        }
+        return measure(codePoint);
+    }
+
+    private int measure(int codePoint) {
+        return Math.max(0, getLength(new String(Character.toChars(codePoint))));
+    }
+
+    private int[] probe(CharSequence content) {
+        String text = content.toString();
+        if (getLength(text) == text.length()) {
+            return null;
+        }
+
+        int[] result = new int[text.length()];
+        int i = 0;
+        while (i < text.length()) {
+            int length = 0;
+            for (int end = i + 1; end <= Math.min(text.length(), i + MAX_ESCAPE_LENGTH); end++) {
+                if (getLength(text.substring(i, end)) == 0) {
+                    length = end - i;
+                    break;
+                }
+            }
+            result[i] = length;
+            i += length > 0 ? length : Character.charCount(text.codePointAt(i));
+        }
+        return result;
+    }
+}
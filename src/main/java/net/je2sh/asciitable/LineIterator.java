@@ -0,0 +1,57 @@
+package net.je2sh.asciitable;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+
+
+
+/**
+ * Iterator over the rendered lines of a table. Rows are only laid out when the consumer reaches
+ * them, therefore only the lines of a single row are buffered at any given time.
+ *
+ * @see JTable#lineIterator()
+ */
+class LineIterator implements Iterator<String> {
+
+    private final TableRenderer renderer;
+    private final Iterator<JRow> rows;
+
+    /**
+     * Lines of the current row which were not yet consumed
+     */
+    private final Queue<String> pending = new ArrayDeque<>();
+
+    private boolean ended = false;
+
+    LineIterator(TableRenderer renderer, Iterator<JRow> rows) {
+        this.renderer = renderer;
+        this.rows = rows;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (pending.isEmpty() && !ended) {
+            if (rows.hasNext()) {
+                JRow row = rows.next();
+                renderer.accumulate(row);
+                renderer.renderRow(row, pending::add);
+            }
+            else {
+                renderer.renderEnd(pending::add);
+                renderer.report();
+                ended = true;
+            }
+        }
+        return !pending.isEmpty();
+    }
+
+    @Override
+    public String next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return pending.poll();
+    }
+}
@@ -0,0 +1,413 @@
+package net.je2sh.asciitable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+
+/**
+ * Wraps content into lines of a maximum visible width.
+ * <p>
+ * Widths are measured in visible columns as reported by
+ * {@link ContentParser#charWidth(int)}. Escape sequences reported by
+ * {@link ContentParser#escapeLength(CharSequence, int)} take no space and are never split.
+ * Styles (SGR sequences, e.g. colors) active at the end of a line are reset at the end of that
+ * line and applied again at the start of the next one, so each line is self-contained.
+ * <p>
+ * Lines are broken at the last space that fits and words longer than the width are broken at the
+ * width. Spaces left at the start of a line by such a break are dropped, whereas spaces at the
+ * start of the content or after an explicit '{@literal \n}' are kept so that indentation is
+ * preserved. Explicit '{@literal \n}'s are respected and trailing empty lines are dropped.
+ * <p>
+ * The number of lines and of characters may be bounded, in which case wrapping stops as soon as
+ * the limit is reached and the last line ends with a {@link Truncation} marker. The work done is
+ * then bounded by the limits rather than by the length of the content.
+ * <p>
+ * Instances reuse internal buffers and are therefore not thread safe.
+ */
+class LineWrapper {
+
+    /**
+     * Resets every style
+     */
+    static final String RESET = AnsiScanner.ESC + "[0m";
+
+    /**
+     * Receives each wrapped line
+     */
+    interface Sink {
+
+        /**
+         * @param line          The wrapped line. Only valid during the call
+         * @param visibleLength Number of visible columns of the line
+         */
+        void line(CharSequence line, int visibleLength);
+    }
+
+    private final ContentParser contentParser;
+
+    /**
+     * Style sequences applied since the last reset, in order
+     */
+    private final List<String> activeStyles = new ArrayList<>();
+    private final StringBuilder lineBuilder = new StringBuilder();
+
+    /**
+     * Empty lines not yet emitted since they are dropped if only empty lines follow them
+     */
+    private int pendingEmptyLines;
+    private boolean emitted;
+
+    /**
+     * Limits of the current wrap. {@literal limitEnd} is the index at which the character limit
+     * is reached, or the length of the content if there is none.
+     */
+    private int maxLines;
+    private int limitEnd;
+    private boolean limited;
+    private Truncation truncation;
+
+    private int width;
+    private int emittedLines;
+    private boolean stopped;
+
+    LineWrapper(ContentParser contentParser) {
+        this.contentParser = LengthContentParser.measuring(contentParser);
+    }
+
+    /**
+     * Wraps {@literal content} in lines with at most {@literal width} visible columns.
+     *
+     * @param content Content to be wrapped (may contain explicit '{@literal \n}'s)
+     * @param width   Maximum visible width of each line. Values lower than 1 are treated as 1
+     * @param sink    Receives each wrapped line
+     */
+    void wrap(String content, int width, Sink sink) {
+        wrap(content, width, Integer.MAX_VALUE, Integer.MAX_VALUE, Truncation.ELLIPSIS, sink);
+    }
+
+    /**
+     * Same as {@link #wrap(String, int, Sink)} producing at most {@literal maxLines} lines out of
+     * the first {@literal maxChars} characters of {@literal content}. If anything is left out,
+     * the last line is shortened to end with the marker of {@literal truncation}.
+     *
+     * @param content    Content to be wrapped (may contain explicit '{@literal \n}'s)
+     * @param width      Maximum visible width of each line. Values lower than 1 are treated as 1
+     * @param maxLines   Maximum number of lines. Values lower than 1 are treated as 1
+     * @param maxChars   Maximum number of characters (escape sequences excluded) to be wrapped
+     * @param truncation Marker ending the last line when content is left out
+     * @param sink       Receives each wrapped line
+     */
+    void wrap(String content, int width, int maxLines, int maxChars, Truncation truncation,
+              Sink sink)
+    {
+        activeStyles.clear();
+        pendingEmptyLines = 0;
+        emitted = false;
+        this.width = Math.max(1, width);
+        this.maxLines = Math.max(1, maxLines);
+        this.limitEnd = limitEnd(content, maxChars);
+        this.limited = maxLines != Integer.MAX_VALUE || limitEnd < content.length();
+        this.truncation = truncation;
+        this.emittedLines = 0;
+        this.stopped = false;
+
+        int lineStart = 0;
+        int length = limitEnd;
+        boolean explicitBreak = false;
+        while (lineStart <= length && !stopped) {
+            int lineEnd = indexOfLineBreak(content, lineStart, length);
+            if (lineEnd < 0) {
+                lineEnd = length;
+            }
+            else {
+                explicitBreak = true;
+            }
+            wrapLine(content, lineStart, lineEnd, this.width, sink);
+            lineStart = lineEnd + 1;
+        }
+
+        if (!emitted && !explicitBreak) {
+            // Same as String#split, content without line breaks always produces a line
+            sink.line("", 0);
+        }
+    }
+
+    /**
+     * @return Index of the first '{@literal \n}' between {@literal start} and {@literal end}, or
+     * -1 if there is none
+     */
+    private static int indexOfLineBreak(String content, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (content.charAt(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return Index right after the first {@literal maxChars} characters of {@literal content}
+     */
+    private int limitEnd(String content, int maxChars) {
+        if (maxChars == Integer.MAX_VALUE) {
+            return content.length();
+        }
+        int chars = 0;
+        int i = 0;
+        while (i < content.length()) {
+            int escapeLength = contentParser.escapeLength(content, i);
+            if (escapeLength > 0) {
+                i = Math.min(content.length(), i + escapeLength);
+                continue;
+            }
+            if (chars >= maxChars) {
+                break;
+            }
+            chars++;
+            i += Character.charCount(content.codePointAt(i));
+        }
+        return i;
+    }
+
+    /**
+     * @return Index of the first visible character (i.e. not a space, line break nor escape
+     * sequence) from {@literal start}, or the length of the content if there is none
+     */
+    private int nextVisible(String content, int start) {
+        int i = start;
+        while (i < content.length()) {
+            int escapeLength = contentParser.escapeLength(content, i);
+            if (escapeLength > 0) {
+                i += escapeLength;
+            }
+            else if (content.charAt(i) == ' ' || content.charAt(i) == '\n') {
+                i++;
+            }
+            else {
+                return i;
+            }
+        }
+        return content.length();
+    }
+
+    /**
+     * Wraps a line without explicit line breaks
+     */
+    private void wrapLine(String content, int start, int end, int width, Sink sink) {
+        int offset = start;
+        boolean wrapped = false;
+
+        while (offset < end && !stopped) {
+            if (wrapped && content.charAt(offset) == ' ') {
+                offset++;
+                continue;
+            }
+
+            int visible = 0;
+            int lastSpace = -1;
+            int visibleAtLastSpace = 0;
+            int i = offset;
+            while (i < end) {
+                int escapeLength = contentParser.escapeLength(content, i);
+                if (escapeLength > 0) {
+                    i = Math.min(end, i + escapeLength);
+                    continue;
+                }
+                int codePoint = Character.codePointAt(content, i);
+                int charWidth = contentParser.charWidth(codePoint);
+                if (codePoint == ' ') {
+                    lastSpace = i;
+                    visibleAtLastSpace = visible;
+                }
+                // A line holds at least one character, even if wider than the line itself
+                if (visible + charWidth > width && visible > 0) {
+                    break;
+                }
+                visible += charWidth;
+                i += Character.charCount(codePoint);
+            }
+
+            if (i >= end) {
+                emit(content, offset, end, visible, sink);
+                return;
+            }
+
+            wrapped = true;
+            if (lastSpace > offset) {
+                emit(content, offset, lastSpace, visibleAtLastSpace, sink);
+                offset = lastSpace + 1;
+            }
+            else {
+                emit(content, offset, i, visible, sink);
+                offset = i;
+            }
+        }
+
+        if (!wrapped && !stopped) {
+            // Blank line
+            emit(content, end, end, 0, sink);
+        }
+    }
+
+    private void emit(String content, int start, int end, int visibleLength, Sink sink) {
+        if (start == end) {
+            pendingEmptyLines++;
+            return;
+        }
+        for (; pendingEmptyLines > 0; pendingEmptyLines--) {
+            if (emittedLines + 1 >= maxLines) {
+                // Content follows but this is the last line allowed
+                emitTruncated(content, start, start, sink);
+                return;
+            }
+            sink.line("", 0);
+            emittedLines++;
+        }
+
+        if (limited) {
+            int next = nextVisible(content, end);
+            if (next < content.length() && (emittedLines + 1 >= maxLines || next >= limitEnd)) {
+                emitTruncated(content, start, end, sink);
+                return;
+            }
+        }
+
+        lineBuilder.setLength(0);
+        for (String style : activeStyles) {
+            lineBuilder.append(style);
+        }
+        lineBuilder.append(content, start, end);
+        trackStyles(content, start, end);
+        if (!activeStyles.isEmpty()) {
+            lineBuilder.append(RESET);
+        }
+
+        sink.line(lineBuilder, visibleLength);
+        emitted = true;
+        emittedLines++;
+    }
+
+    /**
+     * Emits the last line, shortened to make room for the truncation marker, and stops wrapping.
+     *
+     * @param start Start of the line
+     * @param end   End of the line, were it not truncated
+     */
+    private void emitTruncated(String content, int start, int end, Sink sink) {
+        // The marker can only get shorter once the actual number of hidden characters is known
+        int reservedWidth = visibleLength(truncation.marker(content.length() - start, true));
+        int available = width - reservedWidth;
+
+        int cut = start;
+        int visible = 0;
+        int lastSpace = -1;
+        int visibleAtLastSpace = 0;
+        int i = start;
+        while (i < end && available > 0) {
+            int escapeLength = contentParser.escapeLength(content, i);
+            if (escapeLength > 0) {
+                i = Math.min(end, i + escapeLength);
+                cut = i;
+                continue;
+            }
+            int codePoint = Character.codePointAt(content, i);
+            int charWidth = contentParser.charWidth(codePoint);
+            if (visible + charWidth > available) {
+                break;
+            }
+            if (codePoint == ' ') {
+                lastSpace = i;
+                visibleAtLastSpace = visible;
+            }
+            visible += charWidth;
+            i += Character.charCount(codePoint);
+            cut = i;
+        }
+        if (cut < end && lastSpace > start) {
+            cut = lastSpace;
+            visible = visibleAtLastSpace;
+        }
+
+        String marker = truncation.marker(content.length() - cut, cut > start);
+        int markerWidth = visibleLength(marker);
+        if (markerWidth > width) {
+            marker = Truncation.ELLIPSIS.marker(content.length() - cut, cut > start);
+            markerWidth = visibleLength(marker);
+        }
+
+        lineBuilder.setLength(0);
+        for (String style : activeStyles) {
+            lineBuilder.append(style);
+        }
+        lineBuilder.append(content, start, cut);
+        trackStyles(content, start, cut);
+        if (!activeStyles.isEmpty()) {
+            lineBuilder.append(RESET);
+        }
+        lineBuilder.append(marker);
+
+        sink.line(lineBuilder, visible + markerWidth);
+        emitted = true;
+        emittedLines++;
+        stopped = true;
+    }
+
+    private int visibleLength(String text) {
+        int visible = 0;
+        for (int i = 0; i < text.length(); i += Character.charCount(text.codePointAt(i))) {
+            visible += contentParser.charWidth(text.codePointAt(i));
+        }
+        return visible;
+    }
+
+    /**
+     * Updates the active styles with the SGR sequences found in the given range
+     */
+    private void trackStyles(String content, int start, int end) {
+        int i = content.indexOf(AnsiScanner.ESC, start);
+        while (i >= 0 && i < end) {
+            int escapeLength = contentParser.escapeLength(content, i);
+            if (escapeLength == 0) {
+                escapeLength = 1;
+            }
+            else {
+                String params = sgrParams(content, i, escapeLength);
+                if (params != null && resetsStyles(params)) {
+                    activeStyles.clear();
+                }
+                if (params != null && setsStyles(params)) {
+                    activeStyles.add(content.substring(i, i + escapeLength));
+                }
+            }
+            i = content.indexOf(AnsiScanner.ESC, i + escapeLength);
+        }
+    }
+
+    /**
+     * @return The parameters of the SGR sequence (e.g. a color) of {@literal escapeLength}
+     * characters at {@literal index}, or {@code null} if it is another sequence
+     */
+    static String sgrParams(String content, int index, int escapeLength) {
+        if (escapeLength >= 3 && content.charAt(index) == AnsiScanner.ESC &&
+            content.charAt(index + 1) == '[' && content.charAt(index + escapeLength - 1) == 'm')
+        {
+            return content.substring(index + 2, index + escapeLength - 1);
+        }
+        return null;
+    }
+
+    /**
+     * @return Whether an SGR sequence with the given parameters resets the active styles
+     */
+    static boolean resetsStyles(String params) {
+        return params.isEmpty() || params.equals("0") || params.startsWith("0;");
+    }
+
+    /**
+     * @return Whether an SGR sequence with the given parameters applies a style
+     */
+    static boolean setsStyles(String params) {
+        return !params.isEmpty() && !params.equals("0");
+    }
+}
@@ -0,0 +1,101 @@
+package net.je2sh.asciitable;
+
+import java.util.function.Consumer;
+
+
+
+/**
+ * Receives the rendered lines piece by piece, allowing them to be written somewhere without
+ * assembling each line into a String first.
+ *
+ * @see TableRenderer
+ */
+interface LineWriter {
+
+    /**
+     * @param piece Next piece of the current line
+     */
+    void append(String piece);
+
+    /**
+     * Same as {@link #append(String)} for pieces which are the same instance every time they
+     * appear (e.g. borders and padding lines), therefore worth caching in whatever form the
+     * writer produces.
+     *
+     * @param piece Next piece of the current line
+     */
+    void appendRepeated(String piece);
+
+    /**
+     * @param character Next character of the current line
+     */
+    void append(char character);
+
+    /**
+     * Ends the current line
+     */
+    void endLine();
+
+    /**
+     * @return Number of bytes written so far, 0 for writers producing Strings
+     */
+    default long bytesWritten() {
+        return 0;
+    }
+
+    /**
+     * @param lineConsumer Receives each line
+     * @param lineBuilder  Buffer assembling each line, reset after each line
+     * @return A writer assembling each line into a String
+     */
+    static LineWriter of(Consumer<String> lineConsumer, StringBuilder lineBuilder) {
+        return new LineWriter() {
+
+            /**
+             * The only piece of the current line so far, emitted as is if no other follows
+             */
+            private String single;
+
+            @Override
+            public void append(String piece) {
+                if (single == null && lineBuilder.length() == 0) {
+                    single = piece;
+                }
+                else {
+                    flushSingle();
+                    lineBuilder.append(piece);
+                }
+            }
+
+            @Override
+            public void appendRepeated(String piece) {
+                append(piece);
+            }
+
+            @Override
+            public void append(char character) {
+                flushSingle();
+                lineBuilder.append(character);
+            }
+
+            @Override
+            public void endLine() {
+                if (single != null) {
+                    lineConsumer.accept(single);
+                    single = null;
+                }
+                else {
+                    lineConsumer.accept(lineBuilder.toString());
+                    lineBuilder.setLength(0);
+                }
+            }
+
+            private void flushSingle() {
+                if (single != null) {
+                    lineBuilder.append(single);
+                    single = null;
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,219 @@
+package net.je2sh.asciitable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+
+/**
+ * Renders a table page by page. Each page is a complete table on its own, with top and bottom
+ * borders, optionally starting with a header row repeated on every page.
+ * <p>
+ * Pages hold either a fixed number of rows or as many rows as fit in a number of lines. Rows are
+ * never split between pages, a row taller than a whole page gets a page of its own.
+ * <p>
+ * Rendering a page only renders the rows of that page. When paging by lines, the boundaries of a
+ * page depend on the height of the rows before it, therefore the first access to a page lays
+ * out the preceding pages which were not accessed yet. Boundaries are remembered afterwards, so
+ * pages accessed in order are only rendered once.
+ * <p>
+ * Column widths are consistent across pages, auto fit included. Instances are not thread safe.
+ * <pre>{@code
+ * Pagination pages = table.paginate().linesPerPage(40).header(header);
+ * pages.page(0).forEach(System.out::println);
+ * }</pre>
+ *
+ * @see JTable#paginate()
+ * @see JColumnarTable#paginate()
+ * @see JSpillTable#paginate()
+ */
+public class Pagination {
+
+    private final List<JRow> rows;
+    private final TableRenderer renderer;
+
+    private JRow header;
+    private int rowsPerPage;
+    private int linesPerPage;
+
+    /**
+     * Row index at which each page ends (exclusive), for pages which are known not to be the last
+     * one. Only used when paging by lines.
+     */
+    private final List<Integer> pageEnds = new ArrayList<>();
+
+    /**
+     * @param table  Table providing the configuration (width, theme, etc.)
+     * @param rows   Rows to be paginated
+     * @param header Row repeated at the top of each page, {@code null} if none
+     */
+    Pagination(JTable table, List<JRow> rows, JRow header) {
+        this.rows = rows;
+        this.renderer = new TableRenderer(table, rows);
+        this.header = header;
+    }
+
+    /**
+     * Pages hold at most {@literal rowsPerPage} rows, header excluded.
+     *
+     * @param rowsPerPage Number of rows per page
+     * @return This pagination
+     */
+    public Pagination rowsPerPage(int rowsPerPage) {
+        if (rowsPerPage <= 0) {
+            throw new IllegalArgumentException("Rows per page must be positive but got " +
+                                               rowsPerPage);
+        }
+        this.rowsPerPage = rowsPerPage;
+        this.linesPerPage = 0;
+        this.pageEnds.clear();
+        return this;
+    }
+
+    /**
+     * Pages hold as many rows as fit in {@literal linesPerPage} lines, borders and header
+     * included.
+     *
+     * @param linesPerPage Number of lines per page
+     * @return This pagination
+     */
+    public Pagination linesPerPage(int linesPerPage) {
+        if (linesPerPage <= 0) {
+            throw new IllegalArgumentException("Lines per page must be positive but got " +
+                                               linesPerPage);
+        }
+        this.linesPerPage = linesPerPage;
+        this.rowsPerPage = 0;
+        this.pageEnds.clear();
+        return this;
+    }
+
+    /**
+     * Sets the row repeated at the top of each page. If the table starts with this very row, it
+     * is not repeated as a regular row on the first page.
+     *
+     * @param header Header row, {@code null} to remove the header
+     * @return This pagination
+     */
+    public Pagination header(JRow header) {
+        this.header = header;
+        this.pageEnds.clear();
+        return this;
+    }
+
+    /**
+     * @return The number of pages, at least 1. When paging by lines this lays out every page
+     * which was not accessed yet.
+     */
+    public int pageCount() {
+        checkConfigured();
+        int dataRows = rows.size() - firstRow();
+        if (rowsPerPage > 0) {
+            return Math.max(1, (dataRows + rowsPerPage - 1) / rowsPerPage);
+        }
+
+        List<String> discarded = new ArrayList<>();
+        while (startOf(pageEnds.size()) < rows.size()) {
+            discarded.clear();
+            if (!layOut(pageEnds.size(), discarded)) {
+                return pageEnds.size() + 1;
+            }
+        }
+        return Math.max(1, pageEnds.size());
+    }
+
+    /**
+     * Renders a single page.
+     *
+     * @param pageIdx Index of the page, starting at 0
+     * @return A list of lines representing the page
+     * @throws IndexOutOfBoundsException if there is no such page
+     */
+    public List<String> page(int pageIdx) {
+        checkConfigured();
+        if (pageIdx < 0) {
+            throw new IndexOutOfBoundsException("Page " + pageIdx + " does not exist");
+        }
+
+        List<String> page = new ArrayList<>();
+        while (linesPerPage > 0 && pageEnds.size() < pageIdx) {
+            page.clear();
+            if (!layOut(pageEnds.size(), page)) {
+                throw new IndexOutOfBoundsException("Page " + pageIdx + " does not exist");
+            }
+        }
+
+        if (pageIdx > 0 && startOf(pageIdx) >= rows.size()) {
+            throw new IndexOutOfBoundsException("Page " + pageIdx + " does not exist");
+        }
+        page.clear();
+        layOut(pageIdx, page);
+        return page;
+    }
+
+    /**
+     * Renders the given page, remembering where it ends.
+     *
+     * @return Whether more pages follow
+     */
+    private boolean layOut(int pageIdx, List<String> page) {
+        int end = renderPage(startOf(pageIdx), page);
+        boolean more = end < rows.size();
+        if (linesPerPage > 0 && more && pageIdx == pageEnds.size()) {
+            pageEnds.add(end);
+        }
+        return more;
+    }
+
+    /**
+     * @return Index of the first row rendered after the page
+     */
+    private int renderPage(int start, List<String> page) {
+        renderer.measure();
+        if (header != null) {
+            renderer.renderRow(header, page::add);
+        }
+
+        int end = start;
+        if (rowsPerPage > 0) {
+            for (; end < Math.min(rows.size(), start + rowsPerPage); end++) {
+                renderer.renderRow(rows.get(end), page::add);
+            }
+        }
+        else {
+            while (end < rows.size() &&
+                   renderer.renderRow(rows.get(end), linesPerPage - page.size(), page::add))
+            {
+                end++;
+            }
+            if (end == start && end < rows.size()) {
+                // Taller than a whole page, rendered anyway so pagination moves on
+                renderer.renderRow(rows.get(end++), page::add);
+            }
+        }
+
+        renderer.renderEnd(page::add);
+        renderer.report();
+        return end;
+    }
+
+    private int startOf(int pageIdx) {
+        if (pageIdx == 0) {
+            return firstRow();
+        }
+        if (rowsPerPage > 0) {
+            return firstRow() + pageIdx * rowsPerPage;
+        }
+        return pageEnds.get(pageIdx - 1);
+    }
+
+    private int firstRow() {
+        return header != null && !rows.isEmpty() && rows.get(0) == header ? 1 : 0;
+    }
+
+    private void checkConfigured() {
+        if (rowsPerPage <= 0 && linesPerPage <= 0) {
+            throw new IllegalStateException("Either rows or lines per page must be set");
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package net.je2sh.asciitable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+
+
+/**
+ * Renders the rows of a table concurrently.
+ * <p>
+ * Column sizes and borders are computed sequentially since each border depends on the previous
+ * row. Once the column sizes are known the content of each row is independent, therefore rows
+ * are wrapped and padded in chunks on the given executor and reassembled in order afterwards.
+ * The result is identical to {@link JTable#render()}.
+ *
+ * @see JTable#render(Executor)
+ */
+class ParallelTableRenderer {
+
+    /**
+     * Number of consecutive rows rendered by a single task
+     */
+    static final int DEFAULT_CHUNK_SIZE = 256;
+
+    private final JTable table;
+    private final Executor executor;
+    private final int chunkSize;
+
+    ParallelTableRenderer(JTable table, Executor executor, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive but got " + chunkSize);
+        }
+        this.table = table;
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+    }
+
+    List<String> render() {
+        List<JRow> rows = new ArrayList<>(table.getRows());
+        TableRenderer renderer = new TableRenderer(table);
+
+        int[][] rowColSizes = new int[rows.size()][];
+        for (int i = 0; i < rows.size(); i++) {
+            rowColSizes[i] = renderer.layout(rows.get(i));
+        }
+
+        List<TableRenderer> chunkRenderers = new ArrayList<>();
+        List<CompletableFuture<List<List<String>>>> chunks = new ArrayList<>();
+        for (int start = 0; start < rows.size(); start += chunkSize) {
+            int chunkStart = start;
+            int chunkEnd = Math.min(rows.size(), start + chunkSize);
+            TableRenderer chunkRenderer = new TableRenderer(table);
+            chunkRenderers.add(chunkRenderer);
+            chunks.add(CompletableFuture.supplyAsync(() -> {
+                List<List<String>> chunkLines = new ArrayList<>(chunkEnd - chunkStart);
+                for (int i = chunkStart; i < chunkEnd; i++) {
+                    List<String> rowLines = new ArrayList<>();
+                    chunkRenderer.renderContent(rows.get(i), rowColSizes[i], rowLines::add);
+                    chunkLines.add(rowLines);
+                }
+                return chunkLines;
+            }, executor));
+        }
+
+        List<String> result = new ArrayList<>();
+        int rowIdx = 0;
+        for (CompletableFuture<List<List<String>>> chunk : chunks) {
+            for (List<String> rowLines : join(chunk)) {
+                renderer.accumulate(rows.get(rowIdx));
+                renderer.renderTopBorder(rowColSizes[rowIdx++], result::add);
+                result.addAll(rowLines);
+            }
+        }
+        renderer.renderEnd(result::add);
+
+        // Chunks were joined, their statistics are visible to this thread
+        chunkRenderers.forEach(renderer::addStats);
+        renderer.report();
+        return result;
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        }
+        catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
@@ -8,4 +8,9 @@ public class PlainContextParser implements ContentParser {
     public int getLength(Object content) {
         return content.toString().length();
     }
+
+    @Override
+    public int charWidth(int codePoint) {
+        return Character.charCount(codePoint);
+    }
 }
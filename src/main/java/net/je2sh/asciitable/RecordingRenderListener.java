@@ -0,0 +1,47 @@
+package net.je2sh.asciitable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+
+/**
+ * Listener keeping the statistics of every render in memory, e.g. for tests. Thread safe.
+ * <pre>{@code
+ * RecordingRenderListener recorder = new RecordingRenderListener();
+ * table.renderListener(recorder).render();
+ * recorder.last().getWrapNanos();
+ * }</pre>
+ *
+ * @see JTable#renderListener(RenderListener)
+ */
+public class RecordingRenderListener implements RenderListener {
+
+    private final List<RenderStats> renders = new ArrayList<>();
+
+    @Override
+    public synchronized void rendered(RenderStats stats) {
+        renders.add(stats);
+    }
+
+    /**
+     * @return The statistics of every render so far, in the order they completed
+     */
+    public synchronized List<RenderStats> renders() {
+        return new ArrayList<>(renders);
+    }
+
+    /**
+     * @return The statistics of the last render, {@code null} if none
+     */
+    public synchronized RenderStats last() {
+        return renders.isEmpty() ? null : renders.get(renders.size() - 1);
+    }
+
+    /**
+     * Forgets every render so far
+     */
+    public synchronized void clear() {
+        renders.clear();
+    }
+}
@@ -0,0 +1,24 @@
+package net.je2sh.asciitable;
+
+/**
+ * Receives the statistics of each render of a table, e.g. to export them as metrics.
+ * <p>
+ * Tables without listener measure nothing, rendering costs the same as if this interface did not
+ * exist.
+ *
+ * @see JTable#renderListener(RenderListener)
+ * @see RecordingRenderListener
+ */
+@FunctionalInterface
+public interface RenderListener {
+
+    /**
+     * Invoked once a render is complete, on the thread which completed it. A render is a call to
+     * one of the render methods, a {@link JTable#lines()} stream consumed to the end, a page of a
+     * {@link Pagination} or a call to {@link JTable#renderAppended()} or
+     * {@link JTable#renderClose()}.
+     *
+     * @param stats Statistics of the render, not modified afterwards
+     */
+    void rendered(RenderStats stats);
+}
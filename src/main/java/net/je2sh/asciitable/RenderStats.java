@@ -0,0 +1,126 @@
+package net.je2sh.asciitable;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+
+
+/**
+ * Statistics of a single render, reported to a {@link RenderListener}.
+ * <p>
+ * Times are in nanoseconds. When rendering concurrently, the time spent wrapping is added up
+ * across threads and may therefore exceed the total time.
+ *
+ * @see JTable#renderListener(RenderListener)
+ */
+@Getter
+public class RenderStats {
+
+    /**
+     * Number of rows rendered, borders excluded
+     */
+    long rows;
+
+    /**
+     * Number of columns rendered, across all rows
+     */
+    long cells;
+
+    /**
+     * Number of lines produced by wrapping the content of the columns, before padding them to the
+     * height of their row. Rows found in the {@link RowCache} are not wrapped.
+     */
+    long lines;
+
+    /**
+     * Number of characters of the lines emitted as Strings, line separators excluded. 0 when
+     * rendering bytes.
+     */
+    long chars;
+
+    /**
+     * Number of bytes emitted by {@link JTable#renderUtf8(java.io.OutputStream)}, line separators
+     * included. 0 when rendering Strings.
+     */
+    long bytes;
+
+    /**
+     * Time spent measuring the content for {@link JTable#getAutoFit()}, {@link #parseNanos}
+     * included
+     */
+    long measureNanos;
+
+    /**
+     * Time spent computing the width of the columns of each row
+     */
+    long layoutNanos;
+
+    /**
+     * Time spent wrapping and padding the content of the columns, {@link #parseNanos} included
+     */
+    long wrapNanos;
+
+    /**
+     * Time spent in {@link ContentParser#getLength(Object)}, which measures the content of
+     * parsers not implementing {@link ContentParser#escapeLength(CharSequence, int)} nor
+     * {@link ContentParser#charWidth(int)}. Parsers implementing them are called once per
+     * character, too often to be timed on their own, and are only accounted for in
+     * {@link #measureNanos} and {@link #wrapNanos}.
+     */
+    long parseNanos;
+
+    /**
+     * Time spent assembling (or retrieving) the borders
+     */
+    long borderNanos;
+
+    /**
+     * Time from the start of the render to its completion
+     */
+    long totalNanos;
+
+    @Getter(AccessLevel.NONE)
+    private long startNanos;
+
+    @Getter(AccessLevel.NONE)
+    private boolean started;
+
+    /**
+     * Starts the total time, unless already started
+     */
+    void start() {
+        if (!started) {
+            startNanos = System.nanoTime();
+            started = true;
+        }
+    }
+
+    void finish() {
+        totalNanos = started ? System.nanoTime() - startNanos : 0;
+    }
+
+    /**
+     * Adds the counts and times of {@literal other}, total time excluded
+     */
+    void add(RenderStats other) {
+        rows += other.rows;
+        cells += other.cells;
+        lines += other.lines;
+        chars += other.chars;
+        bytes += other.bytes;
+        measureNanos += other.measureNanos;
+        layoutNanos += other.layoutNanos;
+        wrapNanos += other.wrapNanos;
+        parseNanos += other.parseNanos;
+        borderNanos += other.borderNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "RenderStats{rows=" + rows + ", cells=" + cells + ", lines=" + lines +
+               ", chars=" + chars + ", bytes=" + bytes + ", measureNanos=" + measureNanos +
+               ", layoutNanos=" + layoutNanos + ", wrapNanos=" + wrapNanos +
+               ", parseNanos=" + parseNanos +
+               ", borderNanos=" + borderNanos + ", totalNanos=" + totalNanos + "}";
+    }
+}
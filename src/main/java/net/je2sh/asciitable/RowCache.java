@@ -0,0 +1,173 @@
+package net.je2sh.asciitable;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.je2sh.asciitable.style.JTheme;
+
+
+
+/**
+ * Cache of rendered rows, for tables rendered over and over while most of their rows do not
+ * change (e.g. a dashboard refreshed periodically).
+ * <p>
+ * Rows are keyed by everything their lines depend on: the content of each column (through
+ * {@link Object#toString()}), resolved padding and limits, column widths, theme, content parser
+ * and truncation. A row found in the cache is neither wrapped nor padded, its lines are emitted as
+ * they were rendered the first time. Borders are not cached here, they depend on the neighbouring
+ * rows and are already cached by the table.
+ * <p>
+ * The cache holds at most a fixed number of rows, evicting the least recently used one first.
+ * Instances are thread safe and may be shared between tables.
+ *
+ * @see JTable#rowCache(RowCache)
+ */
+public class RowCache {
+
+    private final Map<Key, List<String>> rows;
+
+    private long hits;
+    private long misses;
+
+    private RowCache(int maxRows) {
+        if (maxRows <= 0) {
+            throw new IllegalArgumentException("Maximum number of rows must be positive but got " +
+                                               maxRows);
+        }
+        this.rows = new LinkedHashMap<Key, List<String>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, List<String>> eldest) {
+                return size() > maxRows;
+            }
+        };
+    }
+
+    /**
+     * @param maxRows Maximum number of rows held
+     * @return An empty cache evicting the least recently used rows
+     */
+    public static RowCache lru(int maxRows) {
+        return new RowCache(maxRows);
+    }
+
+    /**
+     * @return Number of rows found in the cache so far
+     */
+    public synchronized long hits() {
+        return hits;
+    }
+
+    /**
+     * @return Number of rows which had to be rendered so far
+     */
+    public synchronized long misses() {
+        return misses;
+    }
+
+    /**
+     * @return Number of rows currently held
+     */
+    public synchronized int size() {
+        return rows.size();
+    }
+
+    /**
+     * Removes every row, keeping the hit and miss counts.
+     */
+    public synchronized void clear() {
+        rows.clear();
+    }
+
+    /**
+     * @return The lines of the row, or {@code null} if not cached
+     */
+    synchronized List<String> get(Key key) {
+        List<String> lines = rows.get(key);
+        if (lines != null) {
+            hits++;
+        }
+        else {
+            misses++;
+        }
+        return lines;
+    }
+
+    /**
+     * @param lines Lines of the row, never modified afterwards
+     */
+    synchronized void put(Key key, List<String> lines) {
+        rows.put(key, lines);
+    }
+
+    /**
+     * @param table    Table the row is rendered by
+     * @param row      Row to be rendered
+     * @param colSizes Width of each column of the row
+     * @return The key of the row as rendered with the given column sizes
+     */
+    static Key key(JTable table, JRow row, int[] colSizes) {
+        List<JCol> cols = row.getCols();
+        Object[] colKeys = new Object[cols.size() * 4];
+        for (int i = 0; i < cols.size(); i++) {
+            JCol col = cols.get(i);
+            colKeys[i * 4] = col.contentString();
+            colKeys[i * 4 + 1] = col.getPadding();
+            colKeys[i * 4 + 2] = col.lineLimit();
+            colKeys[i * 4 + 3] = col.charLimit();
+        }
+        return new Key(table.getTheme(), table.getContentParser(), table.getTruncation(),
+                       colSizes.clone(), colKeys);
+    }
+
+    static final class Key {
+
+        private final JTheme theme;
+        private final ContentParser contentParser;
+        private final Truncation truncation;
+        private final int[] colSizes;
+
+        /**
+         * Content, padding, line limit and character limit of each column
+         */
+        private final Object[] colKeys;
+
+        private final int hash;
+
+        private Key(JTheme theme, ContentParser contentParser, Truncation truncation,
+                    int[] colSizes, Object[] colKeys)
+        {
+            this.theme = theme;
+            this.contentParser = contentParser;
+            this.truncation = truncation;
+            this.colSizes = colSizes;
+            this.colKeys = colKeys;
+            this.hash = 31 * (31 * (31 * System.identityHashCode(theme) +
+                                    System.identityHashCode(contentParser)) +
+                              Arrays.hashCode(colSizes)) + Arrays.hashCode(colKeys);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hash == other.hash &&
+                   theme == other.theme &&
+                   contentParser == other.contentParser &&
+                   truncation == other.truncation &&
+                   Arrays.equals(colSizes, other.colSizes) &&
+                   Arrays.equals(colKeys, other.colKeys);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package net.je2sh.asciitable;
+
+import java.util.function.Consumer;
+
+
+
+/**
+ * Format in which a table is written instead of being drawn with borders, e.g. for machines or
+ * chat messages rather than terminals.
+ * <p>
+ * Formats walk the same rows and columns as {@link JTable#render()} but write the content of each
+ * column as it is: nothing is wrapped nor padded. Rows are written one at a time, as they are
+ * reached.
+ *
+ * @see JTable#format(TableFormat, Appendable)
+ */
+public interface TableFormat {
+
+    /**
+     * @param table Table about to be written, providing its configuration (e.g. width)
+     * @return A writer for a single render of {@literal table}
+     */
+    RowWriter writer(JTable table);
+
+    /**
+     * Writes the rows of a single render, in order
+     */
+    interface RowWriter {
+
+        /**
+         * @param row          Next row
+         * @param lineConsumer Receives the lines representing the row
+         */
+        void write(JRow row, Consumer<String> lineConsumer);
+
+        /**
+         * Invoked after the last row
+         *
+         * @param lineConsumer Receives the closing lines, if any
+         */
+        default void end(Consumer<String> lineConsumer) {
+        }
+    }
+
+    /**
+     * @return GitHub flavoured Markdown, the first row being the header. Pipes are escaped and
+     * line breaks become {@code <br>}
+     */
+    static TableFormat markdown() {
+        return TableFormats.MARKDOWN;
+    }
+
+    /**
+     * @return Comma separated values as of RFC 4180. Cells holding commas, quotes or line breaks
+     * are quoted, quotes being doubled
+     */
+    static TableFormat csv() {
+        return TableFormats.CSV;
+    }
+
+    /**
+     * @return Tab separated values. Tabs, line breaks and backslashes are escaped with a
+     * backslash ({@code \t}, {@code \n}, {@code \r} and {@code \\})
+     */
+    static TableFormat tsv() {
+        return TableFormats.TSV;
+    }
+
+    /**
+     * @return Columns as wide as when rendered with borders (auto fit included), separated by a
+     * space instead of a vertical line. Content longer than its column is cut instead of wrapped
+     * and line breaks become spaces
+     */
+    static TableFormat fixedWidth() {
+        return TableFormats.FIXED_WIDTH;
+    }
+}
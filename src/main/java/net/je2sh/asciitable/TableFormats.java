@@ -0,0 +1,267 @@
+package net.je2sh.asciitable;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+
+
+/**
+ * Built-in {@link TableFormat}s
+ */
+final class TableFormats {
+
+    static final TableFormat MARKDOWN = table -> new MarkdownWriter();
+
+    static final TableFormat CSV = table -> (row, lineConsumer) -> {
+        StringBuilder line = new StringBuilder();
+        List<JCol> cols = row.getCols();
+        for (int colIdx = 0; colIdx < cols.size(); colIdx++) {
+            if (colIdx > 0) {
+                line.append(',');
+            }
+            appendCsv(cols.get(colIdx).contentString(), line);
+        }
+        lineConsumer.accept(line.toString());
+    };
+
+    static final TableFormat TSV = table -> (row, lineConsumer) -> {
+        StringBuilder line = new StringBuilder();
+        List<JCol> cols = row.getCols();
+        for (int colIdx = 0; colIdx < cols.size(); colIdx++) {
+            if (colIdx > 0) {
+                line.append('\t');
+            }
+            appendTsv(cols.get(colIdx).contentString(), line);
+        }
+        lineConsumer.accept(line.toString());
+    };
+
+    static final TableFormat FIXED_WIDTH = FixedWidthWriter::new;
+
+    private TableFormats() {
+    }
+
+    private static void appendCsv(String text, StringBuilder line) {
+        boolean quoted = false;
+        for (int i = 0; i < text.length() && !quoted; i++) {
+            char c = text.charAt(i);
+            quoted = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quoted) {
+            line.append(text);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        line.append('"');
+    }
+
+    private static void appendTsv(String text, StringBuilder line) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '\t':
+                    line.append("\\t");
+                    break;
+                case '\n':
+                    line.append("\\n");
+                    break;
+                case '\r':
+                    line.append("\\r");
+                    break;
+                case '\\':
+                    line.append("\\\\");
+                    break;
+                default:
+                    line.append(c);
+            }
+        }
+    }
+
+    /**
+     * @return A format writing each row but the first one as a record, a line per column made of
+     * the content of the same column in the first row (the key) followed by its own content (the
+     * value). Records are separated by an empty line and lines are cut to {@literal width}
+     */
+    static TableFormat records(int width) {
+        return table -> new RecordWriter(
+                LengthContentParser.measuring(table.getContentParser()), width);
+    }
+
+    /**
+     * Appends as much of {@literal text} as fits in {@literal available} columns, line breaks and
+     * tabs becoming spaces. Escape sequences are kept up to the cut, and styles (e.g. colors)
+     * still active there are reset so they do not leak into what follows.
+     *
+     * @return The width of the appended text
+     */
+    private static int appendCut(String text, int available, ContentParser contentParser,
+                                 StringBuilder line)
+    {
+        int used = 0;
+        boolean styled = false;
+        int i = 0;
+        while (i < text.length()) {
+            int escapeLength = contentParser.escapeLength(text, i);
+            if (escapeLength > 0) {
+                int end = Math.min(text.length(), i + escapeLength);
+                line.append(text, i, end);
+                String params = LineWrapper.sgrParams(text, i, end - i);
+                if (params != null) {
+                    styled = !LineWrapper.resetsStyles(params) && styled ||
+                             LineWrapper.setsStyles(params);
+                }
+                i = end;
+                continue;
+            }
+            int codePoint = text.codePointAt(i);
+            boolean whitespace = Character.isWhitespace(codePoint);
+            int charWidth = whitespace ? 1 : contentParser.charWidth(codePoint);
+            if (used + charWidth > available) {
+                break;
+            }
+            if (whitespace) {
+                line.append(' ');
+            }
+            else {
+                line.appendCodePoint(codePoint);
+            }
+            used += charWidth;
+            i += Character.charCount(codePoint);
+        }
+        if (styled) {
+            line.append(LineWrapper.RESET);
+        }
+        return used;
+    }
+
+    private static final class MarkdownWriter implements TableFormat.RowWriter {
+
+        private boolean headerWritten;
+
+        @Override
+        public void write(JRow row, Consumer<String> lineConsumer) {
+            StringBuilder line = new StringBuilder("|");
+            for (JCol col : row.getCols()) {
+                line.append(' ');
+                String text = col.contentString();
+                for (int i = 0; i < text.length(); i++) {
+                    char c = text.charAt(i);
+                    if (c == '|') {
+                        line.append("\\|");
+                    }
+                    else if (c == '\n') {
+                        line.append("<br>");
+                    }
+                    else if (c != '\r') {
+                        line.append(c);
+                    }
+                }
+                line.append(" |");
+            }
+            lineConsumer.accept(line.toString());
+
+            if (!headerWritten) {
+                StringBuilder separator = new StringBuilder("|");
+                for (int colIdx = 0; colIdx < row.getCols().size(); colIdx++) {
+                    separator.append(" --- |");
+                }
+                lineConsumer.accept(separator.toString());
+                headerWritten = true;
+            }
+        }
+    }
+
+    private static final class FixedWidthWriter implements TableFormat.RowWriter {
+
+        private final JTable table;
+        private final ContentParser contentParser;
+        private final ColumnLayout layout = new ColumnLayout();
+
+        private FixedWidthWriter(JTable table) {
+            this.table = table;
+            this.contentParser = LengthContentParser.measuring(table.getContentParser());
+            if (table.getAutoFit() != null) {
+                // Same sizes as TableRenderer#measure()
+                layout.fitting(table.getAutoFit().measure(table.getRows(), contentParser));
+            }
+        }
+
+        @Override
+        public void write(JRow row, Consumer<String> lineConsumer) {
+            List<JCol> cols = row.getCols();
+            int[] colSizes = layout.colSizes(table.getWidth(), cols);
+            StringBuilder line = new StringBuilder(table.getWidth() + cols.size());
+            for (int colIdx = 0; colIdx < cols.size(); colIdx++) {
+                int used = appendCut(cols.get(colIdx).contentString(), colSizes[colIdx],
+                                     contentParser, line);
+                if (colIdx < cols.size() - 1) {
+                    // A space separates the columns, where the vertical line would be
+                    for (; used <= colSizes[colIdx]; used++) {
+                        line.append(' ');
+                    }
+                }
+            }
+            lineConsumer.accept(line.toString());
+        }
+    }
+
+    private static final class RecordWriter implements TableFormat.RowWriter {
+
+        private static final String SEPARATOR = ": ";
+
+        private final ContentParser contentParser;
+        private final int width;
+
+        private JRow header;
+        private int keyWidth;
+        private boolean recordWritten;
+
+        private RecordWriter(ContentParser contentParser, int width) {
+            this.contentParser = contentParser;
+            this.width = width;
+        }
+
+        @Override
+        public void write(JRow row, Consumer<String> lineConsumer) {
+            if (header == null) {
+                header = row;
+                // Keys take at most half of the line, the rest is left for the values
+                int maxKeyWidth = Math.max(1, (width - SEPARATOR.length()) / 2);
+                StringBuilder discarded = new StringBuilder();
+                for (JCol col : row.getCols()) {
+                    discarded.setLength(0);
+                    keyWidth = Math.max(keyWidth, appendCut(col.contentString(), maxKeyWidth,
+                                                            contentParser, discarded));
+                }
+                return;
+            }
+
+            if (recordWritten) {
+                lineConsumer.accept("");
+            }
+            List<JCol> keys = header.getCols();
+            List<JCol> values = row.getCols();
+            int valueWidth = width - keyWidth - SEPARATOR.length();
+            StringBuilder line = new StringBuilder(width);
+            for (int colIdx = 0; colIdx < values.size(); colIdx++) {
+                line.setLength(0);
+                String key = colIdx < keys.size() ? keys.get(colIdx).contentString() : "";
+                int used = appendCut(key, keyWidth, contentParser, line);
+                for (; used < keyWidth; used++) {
+                    line.append(' ');
+                }
+                line.append(SEPARATOR);
+                appendCut(values.get(colIdx).contentString(), valueWidth, contentParser, line);
+                lineConsumer.accept(line.toString());
+            }
+            recordWritten = true;
+        }
+    }
+}
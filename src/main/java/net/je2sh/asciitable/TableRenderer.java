@@ -0,0 +1,538 @@
+package net.je2sh.asciitable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import net.je2sh.asciitable.style.JTheme;
+
+
+
+/**
+ * Stateful, row by row renderer of a {@link JTable}.
+ * <p>
+ * The renderer remembers the column sizes of the last row it emitted so the next row can be
+ * connected to it. This allows rows to be rendered as they become available instead of
+ * requiring the whole table upfront.
+ *
+ * @see JTable#render()
+ * @see JTable#renderAppended()
+ */
+class TableRenderer {
+
+    private final JTable table;
+
+    /**
+     * Rows of the table. May be a view reusing the same {@link JRow} between positions.
+     */
+    private final List<JRow> rows;
+
+    /**
+     * Column sizes of the last emitted row. Used to determine the intercept connectors of the
+     * next border. {@code null} if no row has been emitted yet.
+     */
+    private int[] colSizes;
+
+    private final ColumnLayout layout = new ColumnLayout();
+
+    /**
+     * Layouts and theme of the last top border, checked before the {@link BorderCache} so
+     * consecutive rows sharing a shape need no lookup at all. Kept per renderer so that renders
+     * sharing a cache do not evict each other's.
+     */
+    private JTheme lastTheme;
+    private int[] lastColSizes;
+    private int[] lastPreviousColSizes;
+    private String lastTopBorder;
+
+    /**
+     * Whether the rows were already measured for {@link JTable#getAutoFit()}
+     */
+    private boolean measured = false;
+
+    /**
+     * Scratch buffers reused between rows, holding the lines of each column and the line being
+     * assembled
+     */
+    private final List<List<String>> colLines = new ArrayList<>();
+    private final StringBuilder lineBuilder = new StringBuilder();
+
+    /**
+     * Scratch buffer in which each line of a column is assembled
+     */
+    private final StringBuilder colLineBuilder = new StringBuilder();
+
+    /**
+     * Fragments used by the last rendered row, per column. Reused while consecutive rows share
+     * theme, padding and widths.
+     */
+    private final List<ColumnFragments> colFragments = new ArrayList<>();
+
+    /**
+     * Scratch buffer holding the content lines of a row until it is known to fit
+     */
+    private final List<String> rowLines = new ArrayList<>();
+
+    /**
+     * Statistics of the render in progress, {@code null} if the table has no
+     * {@link RenderListener}, in which case nothing is measured
+     */
+    private RenderStats stats;
+
+    /**
+     * Content parser of the table, measured per character, and the wrapper reused for every
+     * column. Created when first needed, timing the parser if {@literal stats} are collected.
+     */
+    private ContentParser tableParser;
+    private boolean parserTimed;
+    private ContentParser contentParser;
+    private LineWrapper lineWrapper;
+
+    /**
+     * Footer of the rows accumulated since the last bottom border, {@code null} if none
+     */
+    private Footer footer;
+
+    TableRenderer(JTable table) {
+        this(table, table.getRows());
+    }
+
+    /**
+     * @param table Table providing the configuration (width, theme, etc.)
+     * @param rows  Rows to be rendered
+     */
+    TableRenderer(JTable table, List<JRow> rows) {
+        this.table = table;
+        this.rows = rows;
+        this.stats = table.getRenderListener() != null ? new RenderStats() : null;
+    }
+
+    /**
+     * Renders all the rows followed by the bottom border.
+     *
+     * @param lineConsumer Receives each line as soon as it is assembled
+     */
+    void render(Consumer<String> lineConsumer) {
+        render(lines(lineConsumer));
+    }
+
+    /**
+     * Same as {@link #render(Consumer)} writing the lines piece by piece.
+     *
+     * @param lineWriter Receives each line as soon as it is assembled
+     */
+    void render(LineWriter lineWriter) {
+        measure();
+        for (JRow row : rows) {
+            accumulate(row);
+            renderRow(row, lineWriter);
+        }
+        renderEnd(lineWriter);
+        if (stats != null) {
+            stats.bytes += lineWriter.bytesWritten();
+        }
+        report();
+    }
+
+    /**
+     * Reports the statistics of the render so far to the table's {@link RenderListener}, if any,
+     * and starts measuring the next render.
+     */
+    void report() {
+        RenderListener listener = table.getRenderListener();
+        if (stats != null && listener != null) {
+            RenderStats rendered = stats;
+            stats = new RenderStats();
+            rendered.finish();
+            listener.rendered(rendered);
+        }
+    }
+
+    /**
+     * Adds the statistics of {@literal other}, e.g. a renderer rendering part of the same table
+     * concurrently
+     */
+    void addStats(TableRenderer other) {
+        if (stats != null && other.stats != null) {
+            stats.add(other.stats);
+        }
+    }
+
+    /**
+     * @return A lazy iterator over all the lines
+     * @see LineIterator
+     */
+    Iterator<String> lineIterator() {
+        measure();
+        return new LineIterator(this, rows.iterator());
+    }
+
+    /**
+     * Adapts {@literal out} to receive lines, each one terminated by
+     * {@link System#lineSeparator()}.
+     *
+     * @param out Destination of the lines
+     * @return A consumer appending each line to {@literal out}
+     * @throws UncheckedIOException if {@literal out} fails to append
+     */
+    static Consumer<String> appendingTo(Appendable out) {
+        String lineSeparator = System.lineSeparator();
+        return line -> {
+            try {
+                out.append(line).append(lineSeparator);
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    /**
+     * Renders the given row, including the top border connecting it to the previously emitted
+     * row (if any).
+     *
+     * @param row          Row to be rendered
+     * @param lineConsumer Receives each line as soon as it is assembled
+     */
+    void renderRow(JRow row, Consumer<String> lineConsumer) {
+        renderRow(row, lines(lineConsumer));
+    }
+
+    /**
+     * Same as {@link #renderRow(JRow, Consumer)} writing the lines piece by piece.
+     *
+     * @param row        Row to be rendered
+     * @param lineWriter Receives each line as soon as it is assembled
+     */
+    void renderRow(JRow row, LineWriter lineWriter) {
+        int[] rowColSizes = layout(row);
+        renderTopBorder(rowColSizes, lineWriter);
+        renderContent(row, rowColSizes, lineWriter);
+    }
+
+    /**
+     * Same as {@link #renderRow(JRow, Consumer)} as long as the row, including its top border and
+     * the bottom border which would close it, takes at most {@literal maxLines} lines. Otherwise
+     * nothing is emitted and the renderer is left untouched.
+     *
+     * @param row          Row to be rendered
+     * @param maxLines     Maximum number of lines
+     * @param lineConsumer Receives each line of the row if it fits
+     * @return Whether the row fit and was therefore emitted
+     */
+    boolean renderRow(JRow row, int maxLines, Consumer<String> lineConsumer) {
+        int[] rowColSizes = layout(row);
+        String topBorder = topBorder(rowColSizes, colSizes);
+        String bottomBorder = bottomBorder(rowColSizes);
+        rowLines.clear();
+        renderContent(row, rowColSizes, LineWriter.of(rowLines::add, lineBuilder));
+
+        int lines = rowLines.size() + (isBlank(topBorder) ? 0 : 1) +
+                    (isBlank(bottomBorder) ? 0 : 1);
+        if (lines > maxLines) {
+            return false;
+        }
+        renderTopBorder(rowColSizes, lineConsumer);
+        LineWriter lineWriter = lines(lineConsumer);
+        for (String line : rowLines) {
+            lineWriter.append(line);
+            lineWriter.endLine();
+        }
+        return true;
+    }
+
+    /**
+     * Adds the row to the footer of the table, if it has one. The footer is rendered before the
+     * bottom border by {@link #renderEnd(LineWriter)}.
+     *
+     * @param row Row about to be emitted
+     */
+    void accumulate(JRow row) {
+        Map<Integer, Object> footers = table.getFooters();
+        if (!footers.isEmpty()) {
+            if (footer == null) {
+                footer = new Footer(footers);
+            }
+            footer.add(row);
+        }
+    }
+
+    /**
+     * Computes the width of each column of the given row.
+     * <p>
+     * When auto fitting, the rows of the table are measured on the first call. Rows added
+     * afterwards are laid out according to that measurement.
+     *
+     * @param row Row to be laid out
+     * @return The width of each column of the row. Must not be modified as it may be shared
+     * with other rows.
+     * @throws IllegalArgumentException if the columns do not add up to the table width
+     */
+    int[] layout(JRow row) {
+        measure();
+        if (stats == null) {
+            // If the table width is not evenly distributable between the columns, the leftover
+            // will be applied to the last column
+            return layout.colSizes(table.getWidth(), row.getCols());
+        }
+
+        long start = System.nanoTime();
+        int[] rowColSizes = layout.colSizes(table.getWidth(), row.getCols());
+        stats.layoutNanos += System.nanoTime() - start;
+        return rowColSizes;
+    }
+
+    /**
+     * Measures the rows for {@link JTable#getAutoFit()}, unless already measured. Views reusing
+     * the same {@link JRow} between positions must be measured before retrieving the row to be
+     * rendered, otherwise measuring would overwrite it.
+     */
+    void measure() {
+        if (stats == null && table.getRenderListener() != null) {
+            // Listener set after this renderer was created, e.g. the one of renderAppended()
+            stats = new RenderStats();
+        }
+        if (stats != null) {
+            stats.start();
+        }
+        if (!measured && table.getAutoFit() != null) {
+            long start = stats != null ? System.nanoTime() : 0;
+            layout.fitting(table.getAutoFit().measure(rows, contentParser()));
+            if (stats != null) {
+                stats.measureNanos += System.nanoTime() - start;
+                stats.parseNanos += takeParseNanos();
+            }
+        }
+        measured = true;
+    }
+
+    /**
+     * Emits the top border of a row laid out as {@literal rowColSizes}, connecting it to the
+     * previously emitted row (if any). The given sizes become the ones used to connect the next
+     * row.
+     *
+     * @param rowColSizes  Column sizes of the row about to be emitted
+     * @param lineConsumer Receives the border
+     * @see #layout(JRow)
+     */
+    void renderTopBorder(int[] rowColSizes, Consumer<String> lineConsumer) {
+        renderTopBorder(rowColSizes, lines(lineConsumer));
+    }
+
+    private void renderTopBorder(int[] rowColSizes, LineWriter lineWriter) {
+        int[] previousColSizes = colSizes;
+        colSizes = rowColSizes;
+
+        String topBorder = topBorder(colSizes, previousColSizes);
+        if (!isBlank(topBorder)) {
+            lineWriter.appendRepeated(topBorder);
+            lineWriter.endLine();
+        }
+    }
+
+    /**
+     * Emits the footer of the accumulated rows, if any, followed by the bottom border of the last
+     * rendered row, if any. Afterwards the renderer is reset, meaning the next row will start a
+     * new table.
+     *
+     * @param lineConsumer Receives the bottom border
+     */
+    void renderEnd(Consumer<String> lineConsumer) {
+        renderEnd(lines(lineConsumer));
+    }
+
+    /**
+     * Same as {@link #renderEnd(Consumer)} writing the border piece by piece.
+     *
+     * @param lineWriter Receives the bottom border
+     */
+    void renderEnd(LineWriter lineWriter) {
+        Footer rowsFooter = footer;
+        footer = null;
+        if (colSizes != null && rowsFooter != null) {
+            // Laid out as the last row, so it is connected by a plain border
+            renderRow(rowsFooter.row(table, colSizes), lineWriter);
+        }
+        if (colSizes != null) {
+            String bottomBorder = bottomBorder(colSizes);
+            if (!isBlank(bottomBorder)) {
+                lineWriter.appendRepeated(bottomBorder);
+                lineWriter.endLine();
+            }
+            colSizes = null;
+        }
+    }
+
+    /**
+     * Renders the content lines of a single row, without its top border.
+     * <p>
+     * This method does not depend on the last emitted row, however it reuses the renderer's
+     * scratch buffers. Concurrent callers must therefore use distinct renderers.
+     *
+     * @param row          Row to be rendered
+     * @param colSizes     Width of each column of the row
+     * @param lineConsumer Receives each line of the row as soon as it is assembled
+     */
+    void renderContent(JRow row, int[] colSizes, Consumer<String> lineConsumer) {
+        renderContent(row, colSizes, lines(lineConsumer));
+    }
+
+    private void renderContent(JRow row, int[] colSizes, LineWriter lineWriter) {
+        if (stats != null) {
+            stats.rows++;
+            stats.cells += row.getCols().size();
+        }
+        RowCache rowCache = table.getRowCache();
+        if (rowCache == null) {
+            renderUncached(row, colSizes, lineWriter);
+            return;
+        }
+
+        RowCache.Key key = RowCache.key(table, row, colSizes);
+        List<String> lines = rowCache.get(key);
+        if (lines == null) {
+            lines = new ArrayList<>();
+            renderUncached(row, colSizes, LineWriter.of(lines::add, lineBuilder));
+            rowCache.put(key, lines);
+        }
+        for (String line : lines) {
+            lineWriter.append(line);
+            lineWriter.endLine();
+        }
+    }
+
+    private void renderUncached(JRow row, int[] colSizes, LineWriter lineWriter) {
+        JTheme theme = table.getTheme();
+        List<JCol> cols = row.getCols();
+        while (colLines.size() < cols.size()) {
+            colLines.add(new ArrayList<>());
+            colFragments.add(null);
+        }
+
+        // Each column rendered without borders
+        long start = stats != null ? System.nanoTime() : 0;
+        int maxHeight = 0;
+        for (int colIdx = 0; colIdx < cols.size(); colIdx++) {
+            JCol col = cols.get(colIdx);
+            ColumnFragments fragments = ColumnFragments.reuse(colFragments.get(colIdx), theme,
+                                                              col.getPadding(), colSizes[colIdx]);
+            colFragments.set(colIdx, fragments);
+            List<String> lines = colLines.get(colIdx);
+            lines.clear();
+            col.render(fragments, null, lines, lineWrapper(), colLineBuilder);
+            maxHeight = Math.max(maxHeight, lines.size());
+            if (stats != null) {
+                stats.lines += lines.size();
+            }
+        }
+
+        // Shorter columns are padded to the row height, there is no need to wrap them again
+        for (int colIdx = 0; colIdx < cols.size(); colIdx++) {
+            cols.get(colIdx).fill(colFragments.get(colIdx), maxHeight, colLines.get(colIdx));
+        }
+        if (stats != null) {
+            stats.wrapNanos += System.nanoTime() - start;
+            stats.parseNanos += takeParseNanos();
+        }
+
+        for (int rowNum = 0; rowNum < maxHeight; rowNum++) {
+            for (int colIdx = 0; colIdx < cols.size(); colIdx++) {
+                String line = colLines.get(colIdx).get(rowNum);
+                ColumnFragments fragments = colFragments.get(colIdx);
+                if (line == fragments.bottomPaddingLine || line == fragments.topPaddingLine) {
+                    lineWriter.appendRepeated(line);
+                }
+                else {
+                    lineWriter.append(line);
+                }
+            }
+            if (theme.vertical != Character.MIN_VALUE) {
+                lineWriter.append(theme.vertical);
+            }
+            lineWriter.endLine();
+        }
+    }
+
+    /**
+     * @return A writer assembling the lines into Strings for {@literal lineConsumer}, counting
+     * their characters when measuring
+     */
+    private LineWriter lines(Consumer<String> lineConsumer) {
+        if (stats == null) {
+            return LineWriter.of(lineConsumer, lineBuilder);
+        }
+        return LineWriter.of(line -> {
+            stats.chars += line.length();
+            lineConsumer.accept(line);
+        }, lineBuilder);
+    }
+
+    private String topBorder(int[] rowColSizes, int[] previousColSizes) {
+        JTheme theme = table.getTheme();
+        if (theme == lastTheme && rowColSizes == lastColSizes &&
+            previousColSizes == lastPreviousColSizes)
+        {
+            return lastTopBorder;
+        }
+
+        long start = stats != null ? System.nanoTime() : 0;
+        String topBorder = table.getBorderCache().topBorder(theme, rowColSizes, previousColSizes,
+                                                            table.getWidth());
+        if (stats != null) {
+            stats.borderNanos += System.nanoTime() - start;
+        }
+
+        lastTheme = theme;
+        lastColSizes = rowColSizes;
+        lastPreviousColSizes = previousColSizes;
+        lastTopBorder = topBorder;
+        return topBorder;
+    }
+
+    private String bottomBorder(int[] rowColSizes) {
+        long start = stats != null ? System.nanoTime() : 0;
+        String bottomBorder = table.getBorderCache().bottomBorder(table.getTheme(), rowColSizes);
+        if (stats != null) {
+            stats.borderNanos += System.nanoTime() - start;
+        }
+        return bottomBorder;
+    }
+
+    /**
+     * @return The parser of the table measuring per character, created again if the table
+     * changed parser or started to collect statistics since the previous call
+     */
+    private ContentParser contentParser() {
+        if (tableParser != table.getContentParser() || (stats != null && !parserTimed)) {
+            tableParser = table.getContentParser();
+            parserTimed = stats != null;
+            contentParser = LengthContentParser.measuring(tableParser, parserTimed);
+            lineWrapper = null;
+        }
+        return contentParser;
+    }
+
+    private LineWrapper lineWrapper() {
+        ContentParser parser = contentParser();
+        if (lineWrapper == null) {
+            lineWrapper = new LineWrapper(parser);
+        }
+        return lineWrapper;
+    }
+
+    /**
+     * @return Time spent in {@link ContentParser#getLength(Object)} since the previous call
+     */
+    private long takeParseNanos() {
+        return contentParser instanceof LengthContentParser ?
+               ((LengthContentParser) contentParser).takeNanos() : 0;
+    }
+
+    private static boolean isBlank(String border) {
+        return border.trim().isEmpty();
+    }
+}
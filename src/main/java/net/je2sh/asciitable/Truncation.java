@@ -0,0 +1,39 @@
+package net.je2sh.asciitable;
+
+/**
+ * Marker ending the last line of a cell whose content does not fit within its limits.
+ *
+ * @see JTable#truncation(Truncation)
+ * @see JCol#maxLines(int)
+ * @see JCol#maxChars(int)
+ */
+public enum Truncation {
+
+    /**
+     * A single '{@literal …}'
+     */
+    ELLIPSIS {
+        @Override
+        String marker(int hiddenChars, boolean afterContent) {
+            return "…";
+        }
+    },
+
+    /**
+     * '{@literal (+N more)}' where {@literal N} is the number of characters left out, escape
+     * sequences included
+     */
+    MORE {
+        @Override
+        String marker(int hiddenChars, boolean afterContent) {
+            return (afterContent ? " (+" : "(+") + hiddenChars + " more)";
+        }
+    };
+
+    /**
+     * @param hiddenChars  Number of characters left out
+     * @param afterContent Whether the marker follows content on the same line
+     * @return The marker
+     */
+    abstract String marker(int hiddenChars, boolean afterContent);
+}
@@ -0,0 +1,197 @@
+package net.je2sh.asciitable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+
+
+/**
+ * Encodes the rendered lines as UTF-8 straight into an {@link OutputStream} or a
+ * {@link ByteBuffer}, without building a String per line.
+ * <p>
+ * Bytes are gathered in a fixed chunk which is copied to the destination when full, so writes
+ * reach the destination in large blocks. Pieces repeated on many lines (borders, padding lines)
+ * are encoded once and then copied as a whole, any other piece is encoded character by character
+ * with a fast path for ASCII. Unpaired surrogates are encoded as {@code '?'}, the same as
+ * {@link String#getBytes(java.nio.charset.Charset)}.
+ * <p>
+ * Each line is terminated by {@link System#lineSeparator()}. {@link #flush()} must be invoked once
+ * done. Instances are not thread safe.
+ *
+ * @see JTable#renderUtf8(OutputStream)
+ * @see JTable#renderUtf8(ByteBuffer)
+ */
+final class Utf8LineWriter implements LineWriter {
+
+    private static final int CHUNK_SIZE = 8192;
+
+    /**
+     * Upper bound of pre encoded pieces, the cache is cleared once reached
+     */
+    private static final int MAX_ENCODED_PIECES = 256;
+
+    private static final byte[] LINE_SEPARATOR =
+            System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+
+    private final OutputStream out;
+    private final ByteBuffer buffer;
+
+    private final byte[] chunk = new byte[CHUNK_SIZE];
+    private int position;
+
+    /**
+     * Number of bytes already written to the destination
+     */
+    private long written;
+
+    private final Map<String, byte[]> encodedPieces = new IdentityHashMap<>();
+
+    private Utf8LineWriter(OutputStream out, ByteBuffer buffer) {
+        this.out = out;
+        this.buffer = buffer;
+    }
+
+    static Utf8LineWriter to(OutputStream out) {
+        return new Utf8LineWriter(out, null);
+    }
+
+    static Utf8LineWriter to(ByteBuffer buffer) {
+        return new Utf8LineWriter(null, buffer);
+    }
+
+    @Override
+    public void append(String piece) {
+        int length = piece.length();
+        int i = 0;
+        while (i < length) {
+            if (chunk.length - position < 4) {
+                drain();
+            }
+            // Fields kept in locals, so the ASCII loop only touches the chunk
+            byte[] bytes = chunk;
+            int pos = position;
+            int end = Math.min(length, i + (bytes.length - pos) / 4);
+            while (i < end) {
+                char c = piece.charAt(i++);
+                if (c < 0x80) {
+                    bytes[pos++] = (byte) c;
+                }
+                else if (c < 0x800) {
+                    bytes[pos++] = (byte) (0xC0 | c >> 6);
+                    bytes[pos++] = (byte) (0x80 | c & 0x3F);
+                }
+                else if (!Character.isSurrogate(c)) {
+                    bytes[pos++] = (byte) (0xE0 | c >> 12);
+                    bytes[pos++] = (byte) (0x80 | c >> 6 & 0x3F);
+                    bytes[pos++] = (byte) (0x80 | c & 0x3F);
+                }
+                else if (Character.isHighSurrogate(c) && i < length &&
+                         Character.isLowSurrogate(piece.charAt(i)))
+                {
+                    int codePoint = Character.toCodePoint(c, piece.charAt(i++));
+                    bytes[pos++] = (byte) (0xF0 | codePoint >> 18);
+                    bytes[pos++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                    bytes[pos++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                    bytes[pos++] = (byte) (0x80 | codePoint & 0x3F);
+                }
+                else {
+                    bytes[pos++] = '?';
+                }
+            }
+            position = pos;
+        }
+    }
+
+    @Override
+    public void appendRepeated(String piece) {
+        byte[] encoded = encodedPieces.get(piece);
+        if (encoded == null) {
+            if (encodedPieces.size() >= MAX_ENCODED_PIECES) {
+                encodedPieces.clear();
+            }
+            encoded = piece.getBytes(StandardCharsets.UTF_8);
+            encodedPieces.put(piece, encoded);
+        }
+        write(encoded);
+    }
+
+    @Override
+    public void append(char character) {
+        if (chunk.length - position < 3) {
+            drain();
+        }
+        if (character < 0x80) {
+            chunk[position++] = (byte) character;
+        }
+        else if (character < 0x800) {
+            chunk[position++] = (byte) (0xC0 | character >> 6);
+            chunk[position++] = (byte) (0x80 | character & 0x3F);
+        }
+        else if (!Character.isSurrogate(character)) {
+            chunk[position++] = (byte) (0xE0 | character >> 12);
+            chunk[position++] = (byte) (0x80 | character >> 6 & 0x3F);
+            chunk[position++] = (byte) (0x80 | character & 0x3F);
+        }
+        else {
+            chunk[position++] = '?';
+        }
+    }
+
+    @Override
+    public void endLine() {
+        write(LINE_SEPARATOR);
+    }
+
+    @Override
+    public long bytesWritten() {
+        return written + position;
+    }
+
+    /**
+     * Writes the pending bytes to the destination. Does not flush the {@link OutputStream}.
+     *
+     * @throws UncheckedIOException if the stream fails to be written
+     * @throws java.nio.BufferOverflowException if the buffer is too small
+     */
+    void flush() {
+        drain();
+    }
+
+    private void write(byte[] bytes) {
+        if (bytes.length > chunk.length - position) {
+            drain();
+            if (bytes.length > chunk.length) {
+                writeThrough(bytes, bytes.length);
+                return;
+            }
+        }
+        System.arraycopy(bytes, 0, chunk, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void drain() {
+        if (position > 0) {
+            writeThrough(chunk, position);
+            position = 0;
+        }
+    }
+
+    private void writeThrough(byte[] bytes, int length) {
+        written += length;
+        if (out == null) {
+            buffer.put(bytes, 0, length);
+            return;
+        }
+        try {
+            out.write(bytes, 0, length);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package net.je2sh.asciitable
+
+import spock.lang.Specification
+
+class AdaptiveLayoutTests extends Specification {
+
+    def 'Columns should split the terminal width when they fit'() {
+        given:
+        def table = JTable.of()
+                .row()
+                .col().content('Name').done().col().content('Age').done()
+                .col().content('City').done().col().content('Email').done()
+                .done()
+                .row()
+                .col().content('Alice').done().col().content(30).done()
+                .col().content('Lisbon').done().col().content('alice@example.com').done()
+                .done()
+
+        def result = [
+                '┌────────┬────────┬────────┬───────────┐',
+                '│Name    │Age     │City    │Email      │',
+                '├────────┼────────┼────────┼───────────┤',
+                '│Alice   │30      │Lisbon  │alice@examp│',
+                '│        │        │        │le.com     │',
+                '└────────┴────────┴────────┴───────────┘'
+        ]
+
+        TestUtils.printTable(table.render(AdaptiveLayout.of(40)), result)
+
+        expect:
+        table.render(AdaptiveLayout.of(40)) == result
+    }
+
+    def 'Optional columns should be dropped lowest priority first'() {
+        given:
+        def table = JTable.of()
+                .row()
+                .col().content('Name').done().col().content('Age').done()
+                .col().content('City').done().col().content('Email').done()
+                .done()
+                .row()
+                .col().content('Alice').done().col().content(30).done()
+                .col().content('Lisbon').done().col().content('alice@example.com').done()
+                .done()
+
+        expect:
+        table.render(AdaptiveLayout.of(30).optional(3, 0).optional(1, 1)) == [
+                '┌────────┬────────┬──────────┐',
+                '│Name    │Age     │City      │',
+                '├────────┼────────┼──────────┤',
+                '│Alice   │30      │Lisbon    │',
+                '└────────┴────────┴──────────┘'
+        ]
+    }
+
+    def 'Rightmost optional columns should be dropped first among equal priorities'() {
+        given:
+        def table = JTable.of()
+                .row()
+                .col().content('Name').done().col().content('Age').done()
+                .col().content('City').done().col().content('Email').done()
+                .done()
+
+        expect:
+        table.render(AdaptiveLayout.of(30).optional(1, 0).optional(2, 0)) == [
+                '┌────────┬────────┬──────────┐',
+                '│Name    │Age     │Email     │',
+                '└────────┴────────┴──────────┘'
+        ]
+    }
+
+    def 'Rows should be written as records when required columns do not fit'() {
+        given:
+        def table = JTable.of()
+        [['Name', 'Age', 'City', 'Email'],
+         ['Alice', 30, 'Lisbon', 'alice@example.com'],
+         ['Bob', 25, 'Porto', 'bob@example.com']].each { cells ->
+            def row = table.row()
+            cells.each { row.col().content(it) }
+        }
+
+        expect:
+        table.render(AdaptiveLayout.of(20)) == [
+                'Name : Alice',
+                'Age  : 30',
+                'City : Lisbon',
+                'Email: alice@example',
+                '',
+                'Name : Bob',
+                'Age  : 25',
+                'City : Porto',
+                'Email: bob@example.c'
+        ]
+    }
+
+    def 'Records should leave out optional columns and reset cut styles'() {
+        given:
+        def table = JTable.of().contentParser(new FastAnsiContentParser())
+                .row()
+                .col().content('Name').done().col().content('Age').done()
+                .col().content('City').done().col().content('Email').done()
+                .done()
+                .row()
+                .col().content('\u001B[31mCarol Long-Surname\u001B[0m').done()
+                .col().content(41).done().col().content('Braga').done()
+                .col().content('c@x.com').done()
+                .done()
+
+        expect:
+        table.render(AdaptiveLayout.of(12).optional(3, 0)) == [
+                'Name: \u001B[31mCarol \u001B[0m',
+                'Age : 41',
+                'City: Braga'
+        ]
+    }
+
+    def 'Explicit widths should not prevent the table from fitting'() {
+        given:
+        def table = JTable.of()
+                .row()
+                .col().width(70).content('Name').done().col().content('Age').done()
+                .col().content('City').done().col().content('Email').done()
+                .done()
+
+        expect:
+        table.render(AdaptiveLayout.of(40)) == [
+                '┌────────┬────────┬────────┬───────────┐',
+                '│Name    │Age     │City    │Email      │',
+                '└────────┴────────┴────────┴───────────┘'
+        ]
+    }
+
+    def 'Footers should follow the kept columns'() {
+        given:
+        def table = JTable.of().footer(0, 'Total').footer(1, Aggregation.sum())
+                .row().aggregated(false)
+                .col().content('Name').done().col().content('Age').done()
+                .col().content('City').done().col().content('Email').done()
+                .done()
+                .row()
+                .col().content('Alice').done().col().content(30).done()
+                .col().content('Lisbon').done().col().content('a@x.com').done()
+                .done()
+                .row()
+                .col().content('Bob').done().col().content(25).done()
+                .col().content('Porto').done().col().content('b@x.com').done()
+                .done()
+
+        expect:
+        table.render(AdaptiveLayout.of(30).optional(0, 0)) == [
+                '┌────────┬────────┬──────────┐',
+                '│Age     │City    │Email     │',
+                '├────────┼────────┼──────────┤',
+                '│30      │Lisbon  │a@x.com   │',
+                '├────────┼────────┼──────────┤',
+                '│25      │Porto   │b@x.com   │',
+                '├────────┼────────┼──────────┤',
+                '│55      │        │          │',
+                '└────────┴────────┴──────────┘'
+        ]
+    }
+}
@@ -1,8 +1,10 @@
 package net.je2sh.asciitable
 
 import static JTable.renderTopBorder
+import static net.je2sh.asciitable.style.JTheme.DOUBLE_LINE
 import static net.je2sh.asciitable.style.JTheme.SINGLE_LINE
 
+import net.je2sh.asciitable.style.JTheme
 import spock.lang.Specification
 import spock.lang.Unroll
 
@@ -53,4 +55,34 @@ class BorderTests extends Specification {
         [4, 6] as int[]    | '└────┴──────┘'
         [4, 3, 2] as int[] | '└────┴───┴──┘'
     }
+
+    def 'Top border should support themes repeating characters'() {
+        given:
+        // Horizontal line doubling as top intersection
+        def theme = new JTheme('#' as char, '=' as char, '|' as char, '+' as char, '=' as char,
+                               '+' as char, '+' as char, '+' as char, '+' as char, '^' as char,
+                               '+' as char)
+
+        expect:
+        renderTopBorder([6, 4] as int[], [4, 6] as int[], 10, theme) == '+====^======+'
+        renderTopBorder([4, 6] as int[], [4, 6] as int[], 10, theme) == '+====#======+'
+    }
+
+    def 'Top border should be empty without border characters'() {
+        expect:
+        renderTopBorder([6, 4] as int[], [4, 6] as int[], 10, JTheme.NO_LINE) == ''
+    }
+
+    def 'Border cache should return the same border for the same layout'() {
+        given:
+        def cache = new BorderCache()
+        def first = cache.topBorder(SINGLE_LINE, [4, 6] as int[], [6, 4] as int[], 10)
+
+        expect:
+        first == '├────┬─┴────┤'
+        cache.topBorder(SINGLE_LINE, [4, 6] as int[], [6, 4] as int[], 10).is(first)
+        cache.topBorder(DOUBLE_LINE, [4, 6] as int[], [6, 4] as int[], 10) == '╠════╦═╩════╣'
+        cache.bottomBorder(SINGLE_LINE, [4, 6] as int[]) == '└────┴──────┘'
+        cache.topBorder(SINGLE_LINE, [4, 6] as int[], null, 10) == '┌────┬──────┐'
+    }
 }
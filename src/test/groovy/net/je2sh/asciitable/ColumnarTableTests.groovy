@@ -0,0 +1,100 @@
+package net.je2sh.asciitable
+
+import java.sql.ResultSet
+import java.sql.ResultSetMetaData
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executors
+import java.util.function.Supplier
+
+import spock.lang.Specification
+
+class ColumnarTableTests extends Specification {
+
+    static JTable rowTable(JTable table, List<List<Object>> rows) {
+        rows.each { cells ->
+            def row = table.row()
+            cells.each { row.col().content(it == null ? '' : it) }
+        }
+        return table
+    }
+
+    def 'Columnar tables should render the same as the equivalent row based table'() {
+        given:
+        def data = (1..40).collect { [it, "Name ${it}".toString(), 'x' * (it % 13)] as Object[] }
+        def columnar = JColumnarTable.of(JTable.of().width(40), 'Id', 'Name', 'Value').addAll(data)
+        def expected = rowTable(JTable.of().width(40),
+                                [['Id', 'Name', 'Value']] + data.collect { it as List })
+
+        expect:
+        columnar.size() == 40
+        columnar.get(4, 1) == 'Name 5'
+        columnar.render() == expected.render()
+        columnar.lines().collect() == expected.render()
+    }
+
+    def 'Columnar tables should honour explicit widths, auto fit and null cells'() {
+        given:
+        def columnar = JColumnarTable.of(JTable.of().width(30).autoFit(AutoFit.allRows()), 'A', 'B', 'C')
+                .width(0, 6)
+                .add('one', null, 'three four five')
+                .add('two', 'b', null)
+        def expected = rowTable(JTable.of().width(30).autoFit(AutoFit.allRows()),
+                                [['A', 'B', 'C'], ['one', null, 'three four five'], ['two', 'b', null]])
+        expected.rows.each { it.cols[0].width(6) }
+
+        expect:
+        columnar.render() == expected.render()
+    }
+
+    def 'Concurrent renders should not overwrite each other'() {
+        given:
+        def data = (1..2000).collect { [it, 'x' * (it % 7)] as Object[] }
+        def columnar = JColumnarTable.of(JTable.of().width(20), 'Id', 'Value').addAll(data)
+        def expected = columnar.render()
+        def pool = Executors.newFixedThreadPool(4)
+
+        when:
+        def renders = (1..8).collect {
+            CompletableFuture.supplyAsync({ columnar.render() } as Supplier, pool)
+        }
+
+        then:
+        renders.every { it.get() == expected }
+
+        cleanup:
+        pool.shutdown()
+    }
+
+    def 'Columnar tables should reject rows of the wrong size'() {
+        when:
+        JColumnarTable.of(JTable.of(), 'A', 'B').add('only one')
+
+        then:
+        def e = thrown(IllegalArgumentException)
+        e.message == 'Row size does not match the number of columns. Expected 2 but got 1'
+    }
+
+    def 'Columnar tables should load result sets'() {
+        given:
+        def values = [[1, 'Alice'], [2, null]]
+        def metaData = Mock(ResultSetMetaData) {
+            getColumnCount() >> 2
+            getColumnLabel(1) >> 'Id'
+            getColumnLabel(2) >> 'Name'
+        }
+        int current = -1
+        def resultSet = Mock(ResultSet) {
+            getMetaData() >> metaData
+            next() >> { ++current < values.size() }
+            getObject(_ as Integer) >> { int idx -> values[current][idx - 1] }
+        }
+
+        when:
+        def columnar = JColumnarTable.of(JTable.of().width(20), resultSet)
+
+        then:
+        columnar.size() == 2
+        columnar.render() == rowTable(JTable.of().width(20),
+                                      [['Id', 'Name'], [1, 'Alice'], [2, null]]).render()
+    }
+}
@@ -0,0 +1,148 @@
+package net.je2sh.asciitable
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.function.Supplier
+
+import spock.lang.Specification
+
+class ConcurrentTableTests extends Specification {
+
+    def 'Frozen tables should render the same and not follow later changes'() {
+        given:
+        def table = JTable.of().width(30)
+                .row()
+                .col().content('Simple content').done()
+                .col().width(10).content('Alt').done()
+                .done()
+        def expected = table.render()
+
+        when:
+        def frozen = table.freeze()
+        table.width(40).row().col().content('Added later')
+        table.rows[0].cols[0].content('Changed')
+
+        then:
+        frozen.frozen
+        !table.frozen
+        frozen.freeze().is(frozen)
+        frozen.render() == expected
+        frozen.rows.size() == 1
+    }
+
+    def 'Frozen tables, rows and columns should reject modifications'() {
+        given:
+        def frozen = JTable.of().width(20).row().col().content('A').done().done().freeze()
+        def row = frozen.rows[0]
+
+        when:
+        change(frozen, row)
+
+        then:
+        thrown(UnsupportedOperationException)
+
+        where:
+        change << [
+                { t, r -> t.row() },
+                { t, r -> t.width(30) },
+                { t, r -> t.renderAppended() },
+                { t, r -> t.rows.add(new JRow(t)) },
+                { t, r -> r.col() },
+                { t, r -> r.padding(null) },
+                { t, r -> r.setCols([]) },
+                { t, r -> r.cols.clear() },
+                { t, r -> r.cols[0].content('B') },
+                { t, r -> r.cols[0].width(5) }
+        ]
+    }
+
+    def 'Snapshots should only hold the rows appended before them'() {
+        given:
+        def live = JConcurrentTable.of(JTable.of().width(20))
+        def expected = JTable.of().width(20)
+        def row = new JRow(expected)
+
+        when:
+        (0..<2500).each {
+            live.add(it, "Row $it")
+            expected.row().col().content(it).done().col().content("Row $it")
+        }
+        def snapshot = live.snapshot()
+        live.add(row.col().content('After').done())
+
+        then:
+        live.size() == 2501
+        snapshot.rows.size() == 2500
+        snapshot.render() == expected.render()
+        live.snapshot().rows[2500].cols[0].content == 'After'
+    }
+
+    def 'Snapshots should be rendered while rows are appended'() {
+        given:
+        def live = JConcurrentTable.of(JTable.of().width(30))
+        def pool = Executors.newFixedThreadPool(4)
+        def start = new CountDownLatch(1)
+        def producer = pool.submit {
+            start.await()
+            5000.times { live.add(it, 'x' * (it % 10)) }
+        }
+        def render = {
+            start.await()
+            def checked = 0
+            def last = false
+            while (!last) {
+                last = producer.done
+                def snapshot = live.snapshot()
+                def lines = snapshot.render()
+                // Single line rows, each one with its top border, plus the bottom border
+                assert lines.size() == (snapshot.rows.empty ? 0 : snapshot.rows.size() * 2 + 1)
+                checked++
+            }
+            checked
+        } as Supplier<Integer>
+        def renders = (1..3).collect { CompletableFuture.supplyAsync(render, pool) }
+
+        when:
+        start.countDown()
+        producer.get(30, TimeUnit.SECONDS)
+        def renderCounts = renders.collect { it.get(30, TimeUnit.SECONDS) }
+
+        then:
+        live.size() == 5000
+        renderCounts.every { it > 0 }
+        live.snapshot().rows.size() == 5000
+
+        cleanup:
+        pool.shutdownNow()
+    }
+
+    def 'Snapshots should be rendered without waiting on the shared border cache'() {
+        given:
+        def live = JConcurrentTable.of(JTable.of().width(20))
+        live.add('a', 1).add('b', 2)
+        def snapshot = live.snapshot()
+        def pool = Executors.newSingleThreadExecutor()
+
+        when:
+        // Any lock taken by the cache is held by this thread while the snapshot renders
+        def lines
+        synchronized (snapshot.borderCache) {
+            lines = CompletableFuture.supplyAsync({ snapshot.render() } as Supplier, pool)
+                                     .get(10, TimeUnit.SECONDS)
+        }
+
+        then:
+        lines == [
+                '┌──────────┬──────────┐',
+                '│a         │1         │',
+                '├──────────┼──────────┤',
+                '│b         │2         │',
+                '└──────────┴──────────┘'
+        ]
+
+        cleanup:
+        pool.shutdownNow()
+    }
+}
@@ -0,0 +1,138 @@
+package net.je2sh.asciitable
+
+import static org.fusesource.jansi.Ansi.ansi
+
+import org.fusesource.jansi.Ansi
+import spock.lang.Specification
+import spock.lang.Unroll
+
+@Unroll
+class ContentParserTests extends Specification {
+
+    def 'Fast ANSI parser should match the ANSI parser for #content'() {
+        expect:
+        new FastAnsiContentParser().getLength(content) == new AnsiContentParser().getLength(content)
+        new FastAnsiContentParser(10).getLength(content) == new AnsiContentParser().getLength(content)
+
+        where:
+        content << [
+                'Plain content',
+                '',
+                ansi().fg(Ansi.Color.RED).a('Simple').bgYellow().fgBlue().a(' content').reset(),
+                ansi().bold().a('Bold').boldOff().a(' and ').fgBrightGreen().a('bright'),
+                ansi().cursorUp(2).eraseLine().a('Cursor'),
+                '\u001B[1;2;3mab\u001B[;m',
+                '\u001B[?25hHidden cursor',
+                '\u001B]0;title\u0007Window title',
+                new StringBuilder('\u001B[31mBuilder\u001B[0m')
+        ]
+    }
+
+    def 'Fast ANSI parser should consider truncated sequences invisible'() {
+        expect:
+        new FastAnsiContentParser().getLength(content) == expected
+
+        where:
+        content                  | expected
+        'ab\u001B'               | 2
+        'ab\u001B[12'            | 2
+        'ab\u001B]0;title'       | 2
+        '\u001B(Bab'             | 2
+        '\u001B]0;t\u001B\\ab'   | 2
+    }
+
+    def 'Fast ANSI parser should render tables like the ANSI parser'() {
+        given:
+        def table = { ContentParser parser ->
+            JTable.of().width(20)
+                    .contentParser(parser)
+                    .row()
+                    .col().content(ansi().fg(Ansi.Color.RED).a("Simple content that wraps")
+                    .reset()).done()
+                    .col().content('Alt').done()
+                    .done()
+        }
+
+        expect:
+        table(new FastAnsiContentParser()).render() == table(new AnsiContentParser()).render()
+    }
+
+    def 'Display width parser should measure "#content" as #expected cells'() {
+        expect:
+        new DisplayWidthContentParser().getLength(content) == expected
+
+        where:
+        content                       | expected
+        'plain'                       | 5
+        '\u65E5\u672C\u8A9E'             | 6
+        'e\u0301'                     | 1
+        '\uD83D\uDE00 ok'              | 5
+        'a\u200Bb'                    | 2
+        '\uFF21\uFF22'                 | 4
+    }
+
+    def 'Display width parser should optionally ignore ANSI sequences'() {
+        given:
+        def content = ansi().fg(Ansi.Color.RED).a('\u65E5\u672C').reset().toString()
+
+        expect:
+        new DisplayWidthContentParser(true).getLength(content) == 4
+        new DisplayWidthContentParser().getLength(content) > 4
+    }
+
+    def 'Display width parser should align wide characters'() {
+        given:
+        def table = JTable.of().width(6)
+                .contentParser(new DisplayWidthContentParser())
+                .row()
+                .col().content('\u65E5\u672C\u8A9E\u65E5\u672C').done()
+                .done()
+                .row()
+                .col().content('\uD83D\uDE00 up').done()
+                .done()
+
+        def result = [
+                '┌──────┐',
+                '│\u65E5\u672C\u8A9E│',
+                '│\u65E5\u672C  │',
+                '├──────┤',
+                '│\uD83D\uDE00 up │',
+                '└──────┘'
+        ]
+
+        expect:
+        table.render() == result
+    }
+
+    def 'Parsers only implementing getLength should still be measured through it'() {
+        given:
+        def hidingMarkers = new ContentParser() {
+            @Override
+            int getLength(Object content) {
+                return content.toString().replace('{b}', '').length()
+            }
+        }
+        def table = { ContentParser parser ->
+            JTable.of().width(12)
+                    .contentParser(parser)
+                    .row()
+                    .col().content('{b}abc{b}').done()
+                    .done()
+                    .row()
+                    .col().content('{b}one two{b} three').done()
+                    .done()
+        }
+
+        expect:
+        table(hidingMarkers).render() == [
+                '┌────────────┐',
+                '│{b}abc{b}         │',
+                '├────────────┤',
+                '│{b}one two{b}     │',
+                '│three       │',
+                '└────────────┘'
+        ]
+        table({ it.toString().replace('{b}', '').length() } as ContentParser).render() ==
+                table(hidingMarkers).render()
+    }
+}
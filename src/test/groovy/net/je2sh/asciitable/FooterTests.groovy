@@ -0,0 +1,181 @@
+package net.je2sh.asciitable
+
+import java.util.concurrent.ForkJoinPool
+
+import spock.lang.Specification
+
+class FooterTests extends Specification {
+
+    def 'Footers should render aggregations as a final row'() {
+        given:
+        def table = JTable.of().width(30)
+                .footer(0, 'Total')
+                .footer(1, Aggregation.sum())
+                .footer(2, Aggregation.avg())
+        table.row().col().content('Name').done().col().content('Count').done().col().content('Millis')
+        [['a', 1, 2.5], ['b', '2', 4], ['c', 3L, '']].each { cells ->
+            def row = table.row()
+            cells.each { row.col().content(it) }
+        }
+
+        expect:
+        table.render() == [
+                '┌──────────┬──────────┬──────────┐',
+                '│Name      │Count     │Millis    │',
+                '├──────────┼──────────┼──────────┤',
+                '│a         │1         │2.5       │',
+                '├──────────┼──────────┼──────────┤',
+                '│b         │2         │4         │',
+                '├──────────┼──────────┼──────────┤',
+                '│c         │3         │          │',
+                '├──────────┼──────────┼──────────┤',
+                '│Total     │6         │3.25      │',
+                '└──────────┴──────────┴──────────┘'
+        ]
+    }
+
+    def 'Footers should be connected to a last row of another layout'() {
+        given:
+        def table = JTable.of().width(20).footer(0, Aggregation.max())
+                .row().col().content(1).done().col().content(2).done().done()
+                .row().col().width(6).content(7).done().col().width(14).content(3).done().done()
+
+        expect:
+        table.render().takeRight(5) == [
+                '├──────┬───┴──────────┤',
+                '│7     │3             │',
+                '├──────┼──────────────┤',
+                '│7     │              │',
+                '└──────┴──────────────┘'
+        ]
+    }
+
+    def 'Footers should be rendered by every full render'() {
+        given:
+        def table = JTable.of().width(20).footer(0, 'Total').footer(1, Aggregation.sum())
+                .row().col().content('Name').done().col().content('Count').done().done()
+                .row().col().content('a').done().col().content(1).done().done()
+                .row().col().content('b').done().col().content('2').done().done()
+
+        def result = [
+                '┌──────────┬──────────┐',
+                '│Name      │Count     │',
+                '├──────────┼──────────┤',
+                '│a         │1         │',
+                '├──────────┼──────────┤',
+                '│b         │2         │',
+                '├──────────┼──────────┤',
+                '│Total     │3         │',
+                '└──────────┴──────────┘'
+        ]
+
+        expect:
+        table.render() == result
+        table.lines().collect() == result
+        table.render(ForkJoinPool.commonPool()) == result
+        table.renderAppended() + table.renderClose() == result
+        // Pages have no footer
+        table.paginate().rowsPerPage(10).page(0) == result[0..-4] + ['└──────────┴──────────┘']
+    }
+
+    def 'Aggregations should ignore values which are not numbers'() {
+        given:
+        def table = JTable.of().width(30)
+        (0..<6).each { idx -> table.footer(idx, aggregation[idx]) }
+        table.row()
+        6.times { table.rows[0].col().width(5).content('x') }
+        [4, 8, 15, 16, 23, 42].each { value ->
+            def row = table.row()
+            6.times { row.col().width(5).content(value) }
+        }
+
+        expect:
+        table.render()[-2] == '│6    │108  │18   │4    │42   │32.5 │'
+
+        where:
+        aggregation = [Aggregation.count(), Aggregation.sum(), Aggregation.avg(),
+                       Aggregation.min(), Aggregation.max(), Aggregation.percentile(0.9)]
+    }
+
+    def 'Rows excluded from aggregation should not be aggregated even if numeric'() {
+        given:
+        def table = JTable.of().width(20).footer(0, Aggregation.sum())
+                .row().aggregated(false).col().content(2024).done().done()
+                .row().col().content(1).done().done()
+                .row().col().content(2).done().done()
+
+        expect:
+        table.render() == [
+                '┌────────────────────┐',
+                '│2024                │',
+                '├────────────────────┤',
+                '│1                   │',
+                '├────────────────────┤',
+                '│2                   │',
+                '├────────────────────┤',
+                '│3                   │',
+                '└────────────────────┘'
+        ]
+        table.freeze().render() == table.render()
+    }
+
+    def 'Columnar and top tables should not aggregate their header'() {
+        given:
+        def config = JTable.of().width(20).footer(0, Aggregation.max())
+        def columnar = JColumnarTable.of(config, '95').add(1).add(2)
+        def top = JTopTable.of(config, Comparator.<Integer> naturalOrder(), 2,
+                               { Integer value -> [value] as Object[] })
+                .header('95').addAll([3, 1, 2])
+
+        expect:
+        columnar.render()[-2] == '│2                   │'
+        top.render() == [
+                '┌────────────────────┐',
+                '│95                  │',
+                '├────────────────────┤',
+                '│1                   │',
+                '├────────────────────┤',
+                '│2                   │',
+                '├────────────────────┤',
+                '│2                   │',
+                '└────────────────────┘'
+        ]
+    }
+
+    def 'Percentiles should be estimated closely in constant memory'() {
+        given:
+        def random = new Random(42)
+        def values = (1..100000).collect { random.nextGaussian() * 100 + 1000 }
+        def accumulator = Aggregation.p95().accumulator()
+        values.each { accumulator.add(it) }
+        def exact = values.sort(false)[(int) (0.95 * (values.size() - 1))]
+
+        expect:
+        Math.abs(accumulator.result().toDouble() - exact) / exact < 0.005
+    }
+
+    def 'Aggregations should render nothing without values'() {
+        given:
+        def accumulator = aggregation.accumulator()
+
+        expect:
+        accumulator.result() == result
+
+        where:
+        aggregation         | result
+        Aggregation.sum()   | '0'
+        Aggregation.count() | '0'
+        Aggregation.avg()   | ''
+        Aggregation.min()   | ''
+        Aggregation.p95()   | ''
+    }
+
+    def 'Percentiles should be between 0 and 1'() {
+        when:
+        Aggregation.percentile(1)
+
+        then:
+        def e = thrown(IllegalArgumentException)
+        e.message == 'Percentile must be between 0 and 1 but got 1.0'
+    }
+}
@@ -0,0 +1,118 @@
+package net.je2sh.asciitable
+
+import spock.lang.Specification
+
+class FormatTests extends Specification {
+
+    def 'Markdown should escape pipes and line breaks'() {
+        given:
+        def table = JTable.of()
+                .row().col().content('Name').done().col().content('Note').done().done()
+                .row().col().content('a|b').done().col().content('two\nlines').done().done()
+
+        expect:
+        table.format(TableFormat.markdown()) == [
+                '| Name | Note |',
+                '| --- | --- |',
+                '| a\\|b | two<br>lines |'
+        ]
+    }
+
+    def 'CSV should quote cells as of RFC 4180'() {
+        given:
+        def table = JTable.of()
+                .row()
+                .col().content('a|b').done()
+                .col().content('say "hi", bye').done()
+                .col().content('two\nlines').done()
+                .col().content(1).done()
+                .done()
+
+        expect:
+        table.format(TableFormat.csv()) == ['a|b,"say ""hi"", bye","two\nlines",1']
+    }
+
+    def 'TSV should escape tabs and line breaks'() {
+        given:
+        def table = JTable.of()
+                .row()
+                .col().content('tab\there').done()
+                .col().content('two\nlines').done()
+                .col().content('back\\slash').done()
+                .done()
+
+        expect:
+        table.format(TableFormat.tsv()) == ['tab\\there\ttwo\\nlines\tback\\\\slash']
+    }
+
+    def 'Fixed width should cut the content to the column widths'() {
+        given:
+        def table = JTable.of().width(30)
+                .row()
+                .col().content('Name').done().col().content('Note').done()
+                .col().content('Count').done()
+                .done()
+                .row()
+                .col().content('tab\there').done().col().content('say "hi", bye').done()
+                .col().content(22).done()
+                .done()
+
+        expect:
+        table.format(TableFormat.fixedWidth()) == [
+                'Name       Note       Count',
+                'tab here   say "hi",  22'
+        ]
+    }
+
+    def 'Formats should stream into an appendable'() {
+        given:
+        def table = JTable.of()
+                .row().col().content('Name').done().col().content('Note').done().done()
+                .row().col().content('a').done().col().content('two\nlines').done().done()
+        def out = new StringBuilder()
+
+        when:
+        table.format(TableFormat.csv(), out)
+
+        then:
+        out.toString() == ['Name,Note', 'a,"two\nlines"'].collect { it + System.lineSeparator() }
+                                                         .join()
+    }
+
+    def 'Fixed width should reset styles cut along with their content'() {
+        given:
+        def table = JTable.of().width(20).contentParser(new FastAnsiContentParser())
+        table.row()
+                .col().content('\u001B[31mvery long text\u001B[0m').done()
+                .col().content('\u001B[1mnext\u001B[0m').done()
+
+        expect:
+        table.format(TableFormat.fixedWidth()) == [
+                '\u001B[31mvery long \u001B[0m \u001B[1mnext\u001B[0m'
+        ]
+    }
+
+    def 'Fixed width should size auto fit columns as when rendered with borders'() {
+        given:
+        def table = JTable.of().width(30).autoFit(AutoFit.allRows())
+        table.row()
+                .col().content('Id').done()
+                .col().content('Description').done()
+        table.row()
+                .col().content('1').done()
+                .col().content('A much longer description').done()
+
+        expect:
+        table.render() == [
+                '┌──┬────────────────────────────┐',
+                '│Id│Description                 │',
+                '├──┼────────────────────────────┤',
+                '│1 │A much longer description   │',
+                '└──┴────────────────────────────┘'
+        ]
+        table.format(TableFormat.fixedWidth()) == [
+                'Id Description',
+                '1  A much longer description'
+        ]
+    }
+}
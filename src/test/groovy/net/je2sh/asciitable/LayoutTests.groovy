@@ -0,0 +1,105 @@
+package net.je2sh.asciitable
+
+import spock.lang.Specification
+
+class LayoutTests extends Specification {
+
+    def 'Rows sharing a shape should share the computed widths'() {
+        given:
+        def table = JTable.of().width(20)
+                .row().col().content('A').done().col().width(5).content('B').done().done()
+                .row().col().content('C').done().col().width(7).content('D').done().done()
+                .row().col().content('E').done().col().width(5).content('F').done().done()
+        def layout = new ColumnLayout()
+
+        when:
+        def first = layout.colSizes(20, table.rows[0].cols)
+        def second = layout.colSizes(20, table.rows[1].cols)
+        def third = layout.colSizes(20, table.rows[2].cols)
+
+        then:
+        first == [15, 5] as int[]
+        second == [13, 7] as int[]
+        third.is(first)
+    }
+
+    def 'Cached widths should not be reused for a different table width'() {
+        given:
+        def cols = JTable.of().row().col().content('A').done().col().content('B').done().cols
+        def layout = new ColumnLayout()
+
+        expect:
+        layout.colSizes(20, cols) == [10, 10] as int[]
+        layout.colSizes(21, cols) == [10, 11] as int[]
+    }
+
+    static JTable describedTable(int width) {
+        return JTable.of().width(width)
+                .row().col().content('ID1').done()
+                .col().content('A long description of the thing').done().done()
+                .row().col().content('ID22').done()
+                .col().content('Short').done().done()
+    }
+
+    def 'Auto fit should size columns by content'() {
+        given:
+        def table = describedTable(width).autoFit(autoFit)
+        def renderer = new TableRenderer(table)
+
+        expect:
+        renderer.layout(table.rows[1]) == expected as int[]
+
+        where:
+        width | autoFit                   | expected
+        40    | AutoFit.allRows()         | [4, 36]
+        30    | AutoFit.allRows()         | [4, 26]
+        30    | AutoFit.firstRows(1)      | [3, 27]
+        30    | AutoFit.reservoir(5, 42L) | [4, 26]
+        12    | AutoFit.allRows()         | [3, 9]
+        30    | null                      | [15, 15]
+    }
+
+    def 'Auto fit table should render'() {
+        given:
+        def table = describedTable(20).autoFit(AutoFit.allRows())
+
+        def result = [
+                '┌────┬────────────────┐',
+                '│ID1 │A long          │',
+                '│    │description of  │',
+                '│    │the thing       │',
+                '├────┼────────────────┤',
+                '│ID22│Short           │',
+                '└────┴────────────────┘'
+        ]
+
+        TestUtils.printTable(table.render(), result)
+
+        expect:
+        table.render() == result
+    }
+
+    def 'Auto fit should respect explicit widths'() {
+        given:
+        def table = JTable.of().width(30).autoFit(AutoFit.allRows())
+                .row().col().width(10).content('Fixed').done()
+                .col().content('abc').done()
+                .col().content('abcdef').done().done()
+
+        expect:
+        new TableRenderer(table).layout(table.rows[0]) == [10, 6, 14] as int[]
+    }
+
+    def 'Seeded reservoir sample should be the same on every render'() {
+        given:
+        def table = JTable.of().width(40).autoFit(AutoFit.reservoir(5, 7L))
+        200.times {
+            table.row()
+                    .col().content('x' * (it % 20 + 1)).done()
+                    .col().content('y' * (it % 13 + 1)).done()
+        }
+
+        expect:
+        table.render() == table.render()
+    }
+}
@@ -0,0 +1,140 @@
+package net.je2sh.asciitable
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.function.Supplier
+
+import spock.lang.Specification
+
+class LazyContentTests extends Specification {
+
+    static class CountingContent {
+        int toStrings = 0
+
+        @Override
+        String toString() {
+            toStrings++
+            return 'Counted content'
+        }
+    }
+
+    def 'Deferred content should render the same as eager content'() {
+        given:
+        def lazy = JTable.of().width(20)
+        def eager = JTable.of().width(20)
+        ['Simple content which wraps', null, 42].each { value ->
+            lazy.row().col().content({ value } as Supplier)
+            eager.row().col().content(value == null ? '' : value)
+        }
+
+        expect:
+        lazy.render() == eager.render()
+        lazy.rows[2].cols[0].content == 42
+    }
+
+    def 'Deferred content should only be evaluated once and only when rendered'() {
+        given:
+        def evaluations = [0] * 10
+        def table = JTable.of().width(20)
+        10.times { idx ->
+            table.row().col().content({ evaluations[idx]++; "Row $idx".toString() } as Supplier)
+        }
+        def pages = table.paginate().rowsPerPage(3)
+
+        when:
+        def page = pages.page(1)
+
+        then:
+        page.size() == 7
+        evaluations == [0, 0, 0, 1, 1, 1, 0, 0, 0, 0]
+
+        when:
+        pages.page(1)
+        table.render()
+        table.freeze().render()
+        table.rows[0].cols[0].content
+
+        then:
+        evaluations == [1] * 10
+    }
+
+    def 'Memoized content should only be converted to a String once'() {
+        given:
+        def content = new CountingContent()
+        def table = JTable.of().width(20).memoizeContent(memoize)
+                .row().col().content(content).done().done()
+
+        when:
+        3.times { table.render() }
+
+        then:
+        content.toStrings == expected
+
+        where:
+        memoize | expected
+        false   | 3
+        true    | 1
+    }
+
+    def 'Memoized content should be discarded when the content changes'() {
+        given:
+        def table = JTable.of().width(20).memoizeContent(true)
+                .row().col().content('Before').done().done()
+        table.render()
+
+        when:
+        table.rows[0].cols[0].content('After')
+
+        then:
+        table.render()[1] == '│After               │'
+    }
+
+    def 'Deferred content should be converted to a String once'() {
+        given:
+        def content = new CountingContent()
+        def table = JTable.of().width(20).autoFit(AutoFit.allRows())
+                .row().col().content({ content } as Supplier).done().done()
+
+        when:
+        3.times { table.render() }
+
+        then:
+        content.toStrings == 1
+    }
+
+    def 'Deferred content should be converted to a String once across concurrent renders'() {
+        given:
+        def toStrings = new AtomicInteger()
+        def slowContent = new Object() {
+            @Override
+            String toString() {
+                toStrings.incrementAndGet()
+                // Leaves time for the other renders to reach the same content
+                Thread.sleep(50)
+                return 'Slow content'
+            }
+        }
+        def table = JTable.of().width(20)
+                .row().col().content({ slowContent } as Supplier).done().done()
+        def pool = Executors.newFixedThreadPool(4)
+        def start = new CountDownLatch(1)
+        def renders = (1..4).collect {
+            def frozen = table.freeze()
+            CompletableFuture.supplyAsync({ start.await(); frozen.render() } as Supplier, pool)
+        }
+
+        when:
+        start.countDown()
+        def results = renders.collect { it.get(10, TimeUnit.SECONDS) }
+
+        then:
+        toStrings.get() == 1
+        results.every { it[1] == '│Slow content        │' }
+
+        cleanup:
+        pool.shutdownNow()
+    }
+}
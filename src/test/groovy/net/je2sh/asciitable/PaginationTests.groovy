@@ -0,0 +1,110 @@
+package net.je2sh.asciitable
+
+import spock.lang.Specification
+
+class PaginationTests extends Specification {
+
+    def 'Pages by rows should repeat the header and close each page'() {
+        given:
+        def table = JTable.of().width(12)
+        table.row().col().content('#').done().col().content('Value').done()
+        (1..5).each { table.row().col().content(it).done().col().content("v${it}").done() }
+        def pages = table.paginate().rowsPerPage(2).header(table.rows[0])
+
+        expect:
+        pages.pageCount() == 3
+        pages.page(0) == ['┌──────┬──────┐',
+                          '│#     │Value │',
+                          '├──────┼──────┤',
+                          '│1     │v1    │',
+                          '├──────┼──────┤',
+                          '│2     │v2    │',
+                          '└──────┴──────┘']
+        pages.page(2) == ['┌──────┬──────┐',
+                          '│#     │Value │',
+                          '├──────┼──────┤',
+                          '│5     │v5    │',
+                          '└──────┴──────┘']
+    }
+
+    def 'Pages by lines should never exceed the page height'() {
+        given:
+        def table = JTable.of().width(12)
+        table.row().col().content('#').done().col().content('Value').done()
+        (1..10).each { table.row().col().content(it).done().col().content("v${it}").done() }
+        table.rows[3].cols[1].content('three short words')
+        def pages = table.paginate().linesPerPage(9).header(table.rows[0])
+
+        when:
+        def rendered = (0..<pages.pageCount()).collect { pages.page(it) }
+        def dataLines = rendered.collectMany { it.findAll { !it.startsWith('│#') } }
+
+        then:
+        rendered.every { it.size() <= 9 }
+        rendered.every { it[1] == '│#     │Value │' }
+        dataLines.findAll { it.startsWith('│') && !it.startsWith('│ ') }*.substring(1, 3)
+                .collect { it.trim() } == (1..10).collect { it.toString() }
+    }
+
+    def 'Pages by lines should be accessible out of order'() {
+        given:
+def table = JTable.of().width(12)
+        table.row().col().content('#').done().col().content('Value').done()
+        (1..10).each { table.row().col().content(it).done().col().content("v${it}").done() }
+        def pages = table.paginate().linesPerPage(7)
+
+        expect:
+        pages.page(3) == ['┌──────┬──────┐',
+                          '│9     │v9    │',
+                          '├──────┼──────┤',
+                          '│10    │v10   │',
+                          '└──────┴──────┘']
+        pages.page(1) == ['┌──────┬──────┐',
+                          '│3     │v3    │',
+                          '├──────┼──────┤',
+                          '│4     │v4    │',
+                          '├──────┼──────┤',
+                          '│5     │v5    │',
+                          '└──────┴──────┘']
+        pages.pageCount() == 4
+    }
+
+    def 'Rows taller than a page should get a page of their own'() {
+        given:
+        def table = JTable.of().width(5)
+                .row().col().content('a b c d e f g h i').done().done()
+                .row().col().content('g').done().done()
+        def pages = table.paginate().linesPerPage(4)
+
+        expect:
+        pages.pageCount() == 2
+        pages.page(0).size() == 5
+        pages.page(1) == ['┌─────┐', '│g    │', '└─────┘']
+    }
+
+    def 'Missing pages should be rejected'() {
+        given:
+        def table = JTable.of().width(12)
+        (1..3).each { table.row().col().content(it).done().col().content("v${it}").done() }
+        def pages = table.paginate().rowsPerPage(2)
+
+        when:
+        pages.page(2)
+
+        then:
+        thrown(IndexOutOfBoundsException)
+    }
+
+    def 'Columnar tables should repeat their header on each page'() {
+        given:
+        def columnar = JColumnarTable.of(JTable.of().width(12), '#', 'Value')
+        (1..5).each { columnar.add(it, "v${it}") }
+
+        expect:
+        columnar.paginate().rowsPerPage(2).page(2) == ['┌──────┬──────┐',
+                                                       '│#     │Value │',
+                                                       '├──────┼──────┤',
+                                                       '│5     │v5    │',
+                                                       '└──────┴──────┘']
+    }
+}
@@ -0,0 +1,111 @@
+package net.je2sh.asciitable
+
+import java.util.concurrent.ForkJoinPool
+
+import spock.lang.Specification
+
+class RenderStatsTests extends Specification {
+
+    def 'Renders should report their statistics'() {
+        given:
+        def recorder = new RecordingRenderListener()
+        def table = JTable.of().width(20).renderListener(recorder)
+                .row()
+                .col().content('Simple content which wraps').done()
+                .col().width(8).content('Alt').done()
+                .done()
+                .row()
+                .col().content('One').done()
+                .done()
+
+        when:
+        def lines = table.render()
+        def stats = recorder.last()
+
+        then:
+        lines == [
+                '┌────────────┬────────┐',
+                '│Simple      │Alt     │',
+                '│content     │        │',
+                '│which wraps │        │',
+                '├────────────┴───────┐',
+                '│One                 │',
+                '└────────────────────┘'
+        ]
+        recorder.renders().size() == 1
+        stats.rows == 2
+        stats.cells == 3
+        // 'Simple content which wraps' takes 3 lines, 'Alt' and 'One' a line each
+        stats.lines == 5
+        stats.chars == lines.sum { it.length() }
+        stats.bytes == 0
+        stats.totalNanos > 0
+        stats.totalNanos >= stats.layoutNanos + stats.borderNanos
+        stats.wrapNanos > 0
+        stats.measureNanos == 0
+        stats.parseNanos == 0
+    }
+
+    def 'Time spent in getLength should be reported on its own'() {
+        given:
+        def recorder = new RecordingRenderListener()
+        def table = JTable.of().width(20).renderListener(recorder)
+                .contentParser({ it.toString().replace('{b}', '').length() } as ContentParser)
+                .row().col().content('{b}Bold{b} content which wraps').done().done()
+
+        when:
+        table.render()
+        def stats = recorder.last()
+
+        then:
+        stats.parseNanos > 0
+        stats.wrapNanos >= stats.parseNanos
+    }
+
+    def 'Every kind of render should be reported once'() {
+        given:
+        def recorder = new RecordingRenderListener()
+        def table = JTable.of().width(20).renderListener(recorder).autoFit(AutoFit.allRows())
+                .row().col().content('Simple content').done().col().content('Alt').done().done()
+                .row().col().content('One').done().done()
+        def expected = table.render()
+        recorder.clear()
+        def bytes = new ByteArrayOutputStream()
+
+        when:
+        table.render(new StringWriter())
+        table.lines().collect()
+        table.render(ForkJoinPool.commonPool())
+        table.renderUtf8(bytes)
+        table.paginate().rowsPerPage(1).page(1)
+        table.renderAppended()
+        table.renderClose()
+        def renders = recorder.renders()
+
+        then:
+        renders.size() == 7
+        renders[0..2].every {
+            it.rows == 2 && it.cells == 3 && it.chars == expected.sum { it.length() }
+        }
+        renders[0].measureNanos > 0
+        renders[3].bytes == bytes.size()
+        renders[3].chars == 0
+        renders[4].rows == 1
+        renders[5].rows == 2
+        renders[6].rows == 0
+        renders[6].chars == expected.last().length()
+    }
+
+    def 'Tables without listener should not measure anything'() {
+        given:
+        def recorder = new RecordingRenderListener()
+        def table = JTable.of().width(20).row().col().content('One').done().done()
+
+        when:
+        table.render()
+        table.renderListener(recorder).renderListener(null).render()
+
+        then:
+        recorder.renders().empty
+    }
+}
@@ -0,0 +1,131 @@
+package net.je2sh.asciitable
+
+import java.util.concurrent.ForkJoinPool
+
+import net.je2sh.asciitable.style.JPadding
+import spock.lang.Specification
+
+class RowCacheTests extends Specification {
+
+    def 'Cache hits should render the same lines as misses'() {
+        given:
+        def cache = RowCache.lru(100)
+        def table = JTable.of().width(30).rowCache(cache)
+                .row()
+                .col().content('First row, long enough to wrap').done()
+                .col().width(8).content(1).done()
+                .done()
+                .row()
+                .col().content('Second').done()
+                .col().width(8).content(2).done()
+                .done()
+
+        def result = [
+                '┌──────────────────────┬────────┐',
+                '│First row, long enough│1       │',
+                '│to wrap               │        │',
+                '├──────────────────────┼────────┤',
+                '│Second                │2       │',
+                '└──────────────────────┴────────┘'
+        ]
+
+        expect:
+        table.render() == result
+        cache.misses() == 2
+        cache.hits() == 0
+
+        table.render() == result
+        table.render(ForkJoinPool.commonPool()) == result
+        cache.misses() == 2
+        cache.hits() == 4
+        cache.size() == 2
+    }
+
+    def 'Changed rows should be rendered again'() {
+        given:
+        def cache = RowCache.lru(100)
+        def table = JTable.of().width(30).rowCache(cache)
+        ['First', 'Second', 'Third row, long enough to wrap', 'Fourth'].eachWithIndex { text, i ->
+            table.row().col().content(text).done().col().width(8).content(i + 1)
+        }
+        table.render()
+
+        when:
+        table.rows[0].cols[1].content('changed')
+        table.rows[1].cols[1].padding(JPadding.of(2, 0))
+        table.rows[2].cols[0].maxLines(1)
+        def result = table.render()
+
+        then:
+        cache.misses() == 7
+        cache.hits() == 1
+        result == [
+                '┌──────────────────────┬────────┐',
+                '│First                 │changed │',
+                '├──────────────────────┼────────┤',
+                '│Second                │  2     │',
+                '├──────────────────────┼────────┤',
+                '│Third row, long…      │3       │',
+                '├──────────────────────┼────────┤',
+                '│Fourth                │4       │',
+                '└──────────────────────┴────────┘'
+        ]
+    }
+
+    def 'Rows rendered with other widths or themes should not be reused'() {
+        given:
+        def cache = RowCache.lru(100)
+        def table = JTable.of().width(30).rowCache(cache)
+                .row().col().content('First').done().col().width(8).content(1).done().done()
+                .row().col().content('Second').done().col().width(8).content(2).done().done()
+        table.render()
+
+        when:
+        table.width(40)
+        table.rows.each { it.cols[1].width(18) }
+        def wider = table.render()
+
+        then:
+        cache.hits() == 0
+        cache.misses() == 4
+        wider == [
+                '┌──────────────────────┬──────────────────┐',
+                '│First                 │1                 │',
+                '├──────────────────────┼──────────────────┤',
+                '│Second                │2                 │',
+                '└──────────────────────┴──────────────────┘'
+        ]
+    }
+
+    def 'Least recently used rows should be evicted'() {
+        given:
+        def cache = RowCache.lru(3)
+        def table = JTable.of().width(30).rowCache(cache)
+        5.times { table.row().col().content("Row $it") }
+
+        when:
+        table.render()
+        table.render()
+
+        then:
+        cache.size() == 3
+        cache.hits() == 0
+        cache.misses() == 10
+
+        when:
+        cache.clear()
+
+        then:
+        cache.size() == 0
+        cache.misses() == 10
+    }
+
+    def 'Row caches should hold at least one row'() {
+        when:
+        RowCache.lru(0)
+
+        then:
+        def e = thrown(IllegalArgumentException)
+        e.message == 'Maximum number of rows must be positive but got 0'
+    }
+}
@@ -0,0 +1,136 @@
+package net.je2sh.asciitable
+
+import java.nio.file.Files
+import java.nio.file.Paths
+
+import groovy.transform.CompileStatic
+import org.apache.commons.lang3.StringUtils
+import spock.lang.Specification
+
+class SpillTableTests extends Specification {
+
+    def 'Spilled tables should render the same as the equivalent table across segments'() {
+        given:
+        def expected = JTable.of().width(30)
+        3000.times { idx ->
+            def row = expected.row()
+            (idx % 3 + 1).times { col -> row.col().content("Row ${idx} col ${col} ünïcödé ─ text") }
+        }
+        def file = Files.createTempFile('spill', '.bin')
+        // Tiny segments so rows are spread over many of them
+        def spilled = new JSpillTable(JTable.of().width(30), file, true, 4096)
+        expected.rows.each { spilled.add(it) }
+
+        expect:
+        spilled.size() == 3000
+        spilled.render().take(9) == ['┌──────────────────────────────┐',
+                                     '│Row 0 col 0 ünïcödé ─ text    │',
+                                     '├───────────────┬──────────────┴┐',
+                                     '│Row 1 col 0    │Row 1 col 1    │',
+                                     '│ünïcödé ─ text │ünïcödé ─ text │',
+                                     '├──────────┬────┴─────┬─────────┴┐',
+                                     '│Row 2 col │Row 2 col │Row 2 col │',
+                                     '│0 ünïcödé │1 ünïcödé │2 ünïcödé │',
+                                     '│─ text    │─ text    │─ text    │']
+        spilled.render() == expected.render()
+        spilled.lines().limit(10).collect() == expected.render().take(10)
+
+        cleanup:
+        spilled.close()
+    }
+
+    def 'Spilled tables should support random access through pagination and auto fit'() {
+        given:
+        def expected = JTable.of().width(30).autoFit(AutoFit.reservoir(50, 7))
+        2500.times { idx ->
+            def row = expected.row()
+            (idx % 3 + 1).times { col -> row.col().content("Row ${idx} col ${col} ünïcödé ─ text") }
+        }
+        def spilled = JSpillTable.create(JTable.of().width(30).autoFit(AutoFit.reservoir(50, 7)))
+        expected.rows.each { spilled.add(it) }
+
+        expect:
+        spilled.render() == expected.render()
+        spilled.paginate().rowsPerPage(100).page(17) ==
+                expected.paginate().rowsPerPage(100).page(17)
+
+        cleanup:
+        spilled.close()
+    }
+
+    def 'Spilled cells should keep explicit widths and render null as empty'() {
+        given:
+        def spilled = JSpillTable.create(JTable.of().width(10))
+        spilled.add(JTable.of().row().col().width(3).content('abc').done().col().content('d').done())
+        spilled.add('x', null)
+
+        expect:
+        spilled.render() == ['┌───┬───────┐',
+                             '│abc│d      │',
+                             '├───┴─┬─────┤',
+                             '│x    │     │',
+                             '└─────┴─────┘']
+
+        cleanup:
+        spilled.close()
+    }
+
+    def 'Spilled tables should render more data than fits in the heap'() {
+        given:
+        def classpath = [JSpillTable, SpillHeapCheck, GroovyObject, StringUtils].collect {
+            Paths.get(it.protectionDomain.codeSource.location.toURI()).toString()
+        }.join(File.pathSeparator)
+        def java = Paths.get(System.getProperty('java.home'), 'bin', 'java').toString()
+        def process = new ProcessBuilder(java, '-Xmx32m', '-cp', classpath,
+                                         SpillHeapCheck.name, '200000')
+                .redirectErrorStream(true).start()
+
+        when:
+        def output = process.inputStream.text.trim()
+        def exitCode = process.waitFor()
+
+        then:
+        exitCode == 0
+        // 200000 rows of 400 characters, well over the 32MB heap once rendered
+        output.readLines().last() == 'rendered 200000 rows'
+    }
+}
+
+/**
+ * Spills and renders a table larger than the heap of the JVM it runs in
+ */
+@CompileStatic
+class SpillHeapCheck {
+
+    static void main(String[] args) {
+        int rows = args[0] as int
+        String text = 'x' * 390
+        long chars = 0
+        JSpillTable table = JSpillTable.create(JTable.of().width(120))
+        try {
+            for (int i = 0; i < rows; i++) {
+                table.add(String.format('%09d', i), text)
+            }
+            Writer counting = new Writer() {
+                @Override
+                void write(char[] buffer, int offset, int length) {
+                    chars += length
+                }
+
+                @Override
+                void flush() {
+                }
+
+                @Override
+                void close() {
+                }
+            }
+            table.render(counting)
+        }
+        finally {
+            table.close()
+        }
+        assert chars > 64L * 1024 * 1024
+        println "rendered ${rows} rows"
+    }
+}
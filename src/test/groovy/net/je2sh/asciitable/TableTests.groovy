@@ -2,6 +2,11 @@ package net.je2sh.asciitable
 
 import static org.fusesource.jansi.Ansi.ansi
 
+import java.nio.BufferOverflowException
+import java.nio.ByteBuffer
+import java.util.concurrent.ForkJoinPool
+import java.util.stream.Collectors
+
 import net.je2sh.asciitable.style.JPadding
 import net.je2sh.asciitable.style.JTheme
 import org.fusesource.jansi.Ansi
@@ -148,6 +153,32 @@ class TableTests extends Specification {
         table.render() == result
     }
 
+    def 'Multi line ANSI content should wrap on visible columns'() {
+        given:
+        def table = JTable.of().width(10)
+                .contentParser(parser)
+                .row()
+                .col().content(ansi().fg(Ansi.Color.RED).a("Simple ").bold().a("content")
+                .reset().a(" plain")).done()
+                .done()
+
+        def result = [
+                '┌──────────┐',
+                '│\u001B[31mSimple\u001B[0m    │',
+                '│\u001B[31m\u001B[1mcontent\u001B[m   │',
+                '│plain     │',
+                '└──────────┘'
+        ]
+
+        TestUtils.printTable(table.render(), result)
+
+        expect:
+        table.render() == result
+
+        where:
+        parser << [new AnsiContentParser(), new FastAnsiContentParser()]
+    }
+
     def 'Complex table auto width should work'() {
         given:
         def table = JTable.of().width(20)
@@ -498,5 +529,178 @@ class TableTests extends Specification {
         table.render() == result
     }
 
+    def 'Streaming render should match in memory render'() {
+        given:
+        def table = JTable.of().width(20)
+                .row()
+                .col().content('Main 1 but larger').done()
+                .col().content('Alt 1').done()
+                .done()
+                .row()
+                .col().width(7).content('verylargesingleword').done()
+                .col().width(13).content('Charl Y').done()
+                .done()
+        def writer = new StringWriter()
+
+        when:
+        table.render(writer)
+
+        then:
+        writer.toString() == table.render().collect { it + System.lineSeparator() }.join('')
+    }
+
+    def 'UTF-8 render should match the encoded in memory render'() {
+        given:
+        def table = JTable.of().width(20)
+                .row()
+                .col().content('Main 1 but larger').done()
+                .col().content('Ålt 1 \uD83D\uDE00').done()
+                .done()
+                .row()
+                .col().width(7).content('verylargesingleword').done()
+                .col().width(13).content('Charl Y').done()
+                .done()
+        def expected = table.render().collect { it + System.lineSeparator() }.join('')
+                .getBytes('UTF-8')
+        def stream = new ByteArrayOutputStream()
+        def buffer = ByteBuffer.allocate(4096)
+
+        when:
+        table.renderUtf8(stream)
+        table.renderUtf8(buffer)
+
+        then:
+        stream.toByteArray() == expected
+        Arrays.copyOf(buffer.array(), buffer.position()) == expected
+    }
+
+    def 'UTF-8 render should span many chunks'() {
+        given:
+        def table = JTable.of().width(40)
+        1000.times { table.row().col().content("Row $it ─ ñ").done().col().content(it).done() }
+        def stream = new ByteArrayOutputStream()
+
+        when:
+        table.renderUtf8(stream)
+
+        then:
+        stream.toByteArray() == table.render().collect { it + System.lineSeparator() }.join('')
+                .getBytes('UTF-8')
+    }
+
+    def 'UTF-8 render should fail when the buffer is too small'() {
+        given:
+        def table = JTable.of().width(20)
+                .row()
+                .col().content('Simple content').done()
+                .done()
+
+        when:
+        table.renderUtf8(ByteBuffer.allocate(10))
+
+        then:
+        thrown(BufferOverflowException)
+    }
+
+    def 'Appended rows should only render new lines'() {
+        given:
+        def table = JTable.of().width(20)
+                .row()
+                .col().content('Simple 1').done()
+                .col().content('Simple 2').done()
+                .done()
+
+        when:
+        def first = table.renderAppended()
+        table.row()
+                .col().width(6).content('Alt 1').done()
+                .col().width(14).content('Alt 2').done()
+                .done()
+        def second = table.renderAppended()
+        def nothing = table.renderAppended()
+        def close = table.renderClose()
+
+        then:
+        first == [
+                '┌──────────┬──────────┐',
+                '│Simple 1  │Simple 2  │'
+        ]
+        second == [
+                '├──────┬───┴──────────┤',
+                '│Alt 1 │Alt 2         │'
+        ]
+        nothing == []
+        close == ['└──────┴──────────────┘']
+        first + second + close == table.render()
+    }
+
+    def 'Lazy lines should only render the consumed rows'() {
+        given:
+        def renderedRows = [] as Set
+        def table = JTable.of().width(20)
+        3.times { idx ->
+            table.row()
+                    .col().content(new Object() {
+                        String toString() {
+                            renderedRows << idx
+                            return "Row ${idx}"
+                        }
+                    }).done()
+                    .done()
+        }
+
+        when:
+        def firstLines = table.lines().limit(2).collect(Collectors.toList())
+
+        then:
+        firstLines == [
+                '┌────────────────────┐',
+                '│Row 0               │'
+        ]
+        renderedRows == [0] as Set
+
+        and:
+        table.lines().collect(Collectors.toList()) == table.render()
+    }
+
+    def 'Parallel render should match sequential render'() {
+        given:
+        def table = JTable.of().width(30)
+        100.times { idx ->
+            def row = table.row()
+            (idx % 3 + 1).times { col ->
+                row.col().content("Row ${idx} column ${col} with some longer text").done()
+            }
+        }
+        def pool = new ForkJoinPool(4)
+
+        expect:
+        table.render(pool, rowsPerTask) == table.render()
+
+        cleanup:
+        pool.shutdown()
+
+        where:
+        rowsPerTask << [1, 7, 256]
+    }
+
+    def 'Column limits should bound the row height'() {
+        given:
+        // The marker falls back to an ellipsis when the column is too narrow for it
+        def table = JTable.of().width(20).maxLines(3).truncation(Truncation.MORE)
+                .row()
+                    .col().content('at line 1\n' * 10000).done()
+                    .col().content('a b c d e f').maxLines(1).done()
+                .done()
+
+        expect:
+        table.render() == [
+                '┌──────────┬──────────┐',
+                '│at line 1 │(+11 more)│',
+                '│at line 1 │          │',
+                '│…         │          │',
+                '└──────────┴──────────┘'
+        ]
+    }
 
 }
@@ -0,0 +1,65 @@
+package net.je2sh.asciitable
+
+import java.util.function.Function
+
+import spock.lang.Specification
+
+class TopTableTests extends Specification {
+
+    static final Function<List, Object[]> CELLS = { it as Object[] } as Function
+
+    def 'Top tables should keep the first records in order'() {
+        given:
+        def random = new Random(7)
+        def records = (1..10000).collect { [it, random.nextInt(100000)] }
+        def top = JTopTable.of(JTable.of().width(30), Comparator.comparing { it[1] }.reversed(), 5,
+                               CELLS)
+                .header('Id', 'Millis')
+
+        when:
+        top.addAll(records)
+
+        then:
+        top.seen() == 10000
+        top.size() == 5
+        top.records() == records.sort(false) { -it[1] }.take(5)
+        top.render() == ColumnarTableTests.rowTable(JTable.of().width(30),
+                                                    [['Id', 'Millis']] + top.records()).render()
+        top.lines().collect() == top.render()
+    }
+
+    def 'Equal records should keep the order in which they were added'() {
+        given:
+        def top = JTopTable.of(JTable.of().width(30), Comparator.comparing { it[1] }, 3, CELLS)
+
+        when:
+        top.add(['a', 2]).add(['b', 1]).add(['c', 2]).add(['d', 1]).add(['e', 2]).add(['f', 1])
+
+        then:
+        top.records()*.get(0) == ['b', 'd', 'f']
+    }
+
+    def 'Top tables should render fewer records than the limit and no records at all'() {
+        given:
+        def top = JTopTable.of(JTable.of().width(30), Comparator.comparing { it[0] }, 10, CELLS)
+
+        expect:
+        top.render() == []
+
+        when:
+        top.add([2, null]).add([1, 'one'])
+
+        then:
+        top.render() == ColumnarTableTests.rowTable(JTable.of().width(30),
+                                                    [[1, 'one'], [2, null]]).render()
+    }
+
+    def 'Top tables should reject non positive limits'() {
+        when:
+        JTopTable.of(JTable.of(), Comparator.naturalOrder(), 0, CELLS)
+
+        then:
+        def e = thrown(IllegalArgumentException)
+        e.message == 'Limit must be positive but got 0'
+    }
+}
@@ -0,0 +1,101 @@
+package net.je2sh.asciitable
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+@Unroll
+class WrapTests extends Specification {
+
+    static List<String> wrap(ContentParser parser, String content, int width) {
+        def lines = []
+        new LineWrapper(parser).wrap(content, width, { line, visible -> lines << line.toString() })
+        return lines
+    }
+
+    static List<String> wrap(String content, int width, int maxLines, int maxChars,
+                             Truncation truncation)
+    {
+        def lines = []
+        new LineWrapper(new FastAnsiContentParser()).wrap(
+                content, width, maxLines, maxChars, truncation,
+                { line, visible ->
+                    assert visible <= width
+                    lines << line.toString()
+                })
+        return lines
+    }
+
+    def 'Plain content "#content" should wrap at #width'() {
+        expect:
+        wrap(new PlainContextParser(), content, width) == expected
+
+        where:
+        content                 | width | expected
+        'Simple content'        | 20    | ['Simple content']
+        'Simple content'        | 7     | ['Simple', 'content']
+        'Simple content'        | 6     | ['Simple', 'conten', 't']
+        'verylargesingleword'   | 5     | ['veryl', 'arges', 'ingle', 'word']
+        '  leading spaces'      | 20    | ['  leading spaces']
+        'one\n  two'            | 10    | ['one', '  two']
+        'one   two'             | 4     | ['one ', 'two']
+        'first\nsecond line'    | 6     | ['first', 'second', 'line']
+        'trailing\n\n'          | 10    | ['trailing']
+        'inner\n\nempty'        | 10    | ['inner', '', 'empty']
+        ''                      | 10    | ['']
+    }
+
+    def 'Indented multi-line content should keep its indentation'() {
+        given:
+        def table = JTable.of().width(30)
+                .row()
+                .col().content('{\n  "a": 1,\n  "b": [\n    2\n  ]\n}').done()
+                .done()
+
+        def result = [
+                '┌──────────────────────────────┐',
+                '│{                             │',
+                '│  "a": 1,                     │',
+                '│  "b": [                      │',
+                '│    2                         │',
+                '│  ]                           │',
+                '│}                             │',
+                '└──────────────────────────────┘'
+        ]
+
+        TestUtils.printTable(table.render(), result)
+
+        expect:
+        table.render() == result
+    }
+
+    def 'Escape sequences should never be split'() {
+        expect:
+        wrap(new FastAnsiContentParser(), '\u001B[31mabcdef\u001B[0m', 2) == [
+                '\u001B[31mab\u001B[0m',
+                '\u001B[31mcd\u001B[0m',
+                '\u001B[31mef\u001B[0m'
+        ]
+    }
+
+    def 'Content "#content" limited to #maxLines lines and #maxChars chars should be truncated'() {
+        expect:
+        wrap(content, width, maxLines, maxChars, truncation) == expected
+
+        where:
+        content                    | width | maxLines          | maxChars          | truncation            | expected
+        'one two three four'       | 5     | 2                 | Integer.MAX_VALUE | Truncation.ELLIPSIS   | ['one', 'two…']
+        'one two three four'       | 5     | 4                 | Integer.MAX_VALUE | Truncation.ELLIPSIS   | ['one', 'two', 'three', 'four']
+        'one two three four'       | 20    | Integer.MAX_VALUE | 7                 | Truncation.ELLIPSIS   | ['one two…']
+        'one two three four'       | 20    | Integer.MAX_VALUE | 7                 | Truncation.MORE       | ['one two (+11 more)']
+        'one two three four'       | 12    | 1                 | Integer.MAX_VALUE | Truncation.MORE       | ['o (+17 more)']
+        'line\n\nafter'          | 10    | 2                 | Integer.MAX_VALUE | Truncation.ELLIPSIS   | ['line', '…']
+        'short   '                 | 10    | 1                 | 5                 | Truncation.ELLIPSIS   | ['short']
+        'x' * 50000                | 4     | 3                 | Integer.MAX_VALUE | Truncation.MORE       | ['xxxx', 'xxxx', '…']
+    }
+
+    def 'Truncated lines should reset active styles before the marker'() {
+        expect:
+        wrap('\u001B[31mabcdefgh\u001B[0m', 4, 1, Integer.MAX_VALUE, Truncation.ELLIPSIS) ==
+                ['\u001B[31mabc\u001B[0m…']
+    }
+}